@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.EncodedTaskCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in cache of encoded tasks for {@code GET /tasks/{id}}, enabled by setting
+ * {@code task.web.encoded-cache.maximum-size}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.web.encoded-cache.maximum-size")
+public class EncodedTaskCacheConfig {
+
+    @Bean
+    public EncodedTaskCache encodedTaskCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                             @Value("${task.web.encoded-cache.maximum-size}") long maximumSize) {
+        EncodedTaskCache cache = new EncodedTaskCache(objectMapper, maximumSize);
+        cache.bindTo(meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.EncodedTaskCache;
+import com.example.demo.controller.ReactiveTaskEventHandler;
+import com.example.demo.controller.ReactiveTaskHandler;
+import com.example.demo.service.TaskEventBroadcaster;
+import com.example.demo.service.TaskService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+
+/**
+ * Reactive Task API, active with {@code spring.main.web-application-type=reactive}.
+ *
+ * Serves the same routes as TaskController through functional endpoints on Netty.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    /**
+     * Declared explicitly because Boot would pick Tomcat, which is on the classpath for servlet mode.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveTaskHandler reactiveTaskHandler(TaskService service, ObjectProvider<EncodedTaskCache> encodedTasks) {
+        return new ReactiveTaskHandler(service, encodedTasks.getIfAvailable());
+    }
+
+    @Bean
+    public ReactiveTaskEventHandler reactiveTaskEventHandler(TaskEventBroadcaster broadcaster) {
+        return new ReactiveTaskEventHandler(broadcaster);
+    }
+
+    /**
+     * Ahead of taskRoutes, whose {@code /tasks/{id}} would otherwise take {@code /tasks/events}.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> taskEventRoutes(ReactiveTaskEventHandler handler) {
+        return RouterFunctions.route()
+            .GET("/tasks/events", handler::streamEvents)
+            .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(ReactiveTaskHandler handler) {
+        RequestPredicate ndjsonBody = contentType(MediaType.APPLICATION_NDJSON);
+        // Only an explicit NDJSON Accept streams; */* gets the JSON array as in TaskController
+        RequestPredicate ndjsonAccepted = request -> request.headers().accept().stream()
+            .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return RouterFunctions.route()
+            .path("/tasks", tasks -> tasks
+                .GET("/count", handler::getTaskCount)
+                .GET("/stats", handler::getTaskStats)
+                .GET("/latest", handler::getLatestTasks)
+                .GET("/search", handler::searchTasks)
+                .POST("/batch", ndjsonBody, handler::addTasksFromStream)
+                .POST("/batch", handler::addTasks)
+                .PUT("/batch", ndjsonBody, handler::updateTasksFromStream)
+                .PUT("/batch", handler::updateTasks)
+                .DELETE("/batch", ndjsonBody, handler::deleteTasksFromStream)
+                .DELETE("/batch", handler::deleteTasks)
+                .GET("/{id}", handler::getTask)
+                .PUT("/{id}", handler::updateTask)
+                .DELETE("/{id}", handler::deleteTask)
+                .GET(queryParam("limit", limit -> true), handler::getTaskPage)
+                .GET(ndjsonAccepted, handler::streamTasks)
+                .GET(handler::getTasks)
+                .POST(handler::addTask))
+            .filter(handler::handleErrors)
+            .build();
+    }
+}
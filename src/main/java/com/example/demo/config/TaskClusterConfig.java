@@ -0,0 +1,67 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.ShardForwardingFilter;
+import com.example.demo.controller.TaskCluster;
+import com.example.demo.service.TaskShardRing;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Partitioned mode, enabled by listing every node's base URL in {@code task.cluster.nodes};
+ * this node is the one at index {@code task.cluster.node-id}. Servlet stack only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.cluster.nodes")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskClusterConfig {
+
+    @Bean
+    public TaskShardRing taskShardRing(@Value("${task.cluster.nodes}") List<String> nodes,
+                                       @Value("${task.cluster.virtual-nodes:128}") int virtualNodes) {
+        return new TaskShardRing(nodes.size(), virtualNodes);
+    }
+
+    @Bean(destroyMethod = "close")
+    public TaskCluster taskCluster(TaskShardRing ring, RestClient.Builder restClientBuilder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${task.cluster.nodes}") List<String> nodes,
+                                   @Value("${task.cluster.node-id:0}") int nodeId,
+                                   @Value("${task.cluster.timeout:5s}") Duration timeout,
+                                   @Value("${task.cluster.scatter-threads:8}") int scatterThreads) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        RestClient rest = restClientBuilder.requestFactory(requestFactory).build();
+        TaskCluster cluster = new TaskCluster(ring, nodeId, nodes, rest, scatterThreads);
+        cluster.bindTo(meterRegistry);
+        return cluster;
+    }
+
+    /**
+     * Ordered after the observation filter, so forwarded requests are still measured, and
+     * before the form-content filter, which would consume form bodies.
+     */
+    @Bean
+    public FilterRegistrationBean<ShardForwardingFilter> shardForwardingFilter(TaskCluster cluster) {
+        FilterRegistrationBean<ShardForwardingFilter> registration =
+            new FilterRegistrationBean<>(new ShardForwardingFilter(cluster));
+        registration.addUrlPatterns("/tasks/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import com.example.demo.service.TaskEventBroadcaster;
+import com.example.demo.service.TaskEventLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Change stream of task mutations behind {@code GET /tasks/events}.
+ */
+@Configuration
+public class TaskEventConfig {
+
+    @Bean
+    public TaskEventLog taskEventLog(@Value("${task.events.capacity:65536}") int capacity) {
+        return new TaskEventLog(capacity);
+    }
+
+    @Bean(destroyMethod = "close")
+    public TaskEventBroadcaster taskEventBroadcaster(TaskEventLog log, MeterRegistry meterRegistry,
+                                                     @Value("${task.events.send-threads:4}") int sendThreads,
+                                                     @Value("${task.events.heartbeat:15s}") Duration heartbeat) {
+        TaskEventBroadcaster broadcaster = new TaskEventBroadcaster(log, sendThreads, heartbeat);
+        broadcaster.bindTo(meterRegistry);
+        return broadcaster;
+    }
+}
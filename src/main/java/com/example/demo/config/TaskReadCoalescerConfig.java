@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.TaskReadCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Opt-in request coalescing for {@code GET /tasks} and {@code GET /tasks/{id}}, enabled by
+ * setting {@code task.web.coalesce.window}. Servlet stack only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.web.coalesce.window")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskReadCoalescerConfig {
+
+    @Bean
+    public TaskReadCoalescer taskReadCoalescer(MeterRegistry meterRegistry,
+                                               @Value("${task.web.coalesce.window}") Duration window,
+                                               @Value("${task.web.coalesce.maximum-size:10000}") long maximumSize) {
+        TaskReadCoalescer coalescer = new TaskReadCoalescer(window, maximumSize);
+        coalescer.bindTo(meterRegistry);
+        return coalescer;
+    }
+}
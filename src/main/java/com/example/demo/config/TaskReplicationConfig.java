@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.ReplicaReadFilter;
+import com.example.demo.controller.TaskReplica;
+import com.example.demo.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Follower mode, enabled by pointing {@code task.replication.leader} at the leader's base URL.
+ * Every node serves its mutation log, so any node can lead. Servlet stack only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.replication.leader")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskReplicationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public TaskReplica taskReplica(TaskService service, RestClient.Builder restClientBuilder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${task.replication.leader}") String leaderUrl,
+                                   @Value("${task.replication.batch-size:1000}") int batchSize,
+                                   @Value("${task.replication.poll-wait:1s}") Duration pollWait,
+                                   @Value("${task.replication.timeout:5s}") Duration timeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        // A long poll is allowed to take its full wait before the timeout starts counting
+        requestFactory.setReadTimeout(pollWait.plus(timeout));
+        RestClient rest = restClientBuilder.requestFactory(requestFactory).build();
+        TaskReplica replica = new TaskReplica(service, leaderUrl, rest, batchSize, pollWait, pollWait);
+        replica.bindTo(meterRegistry);
+        return replica;
+    }
+
+    /**
+     * Ordered like the shard forwarding filter: after observation, before form parsing.
+     */
+    @Bean
+    public FilterRegistrationBean<ReplicaReadFilter> replicaReadFilter(
+            TaskReplica replica,
+            @Value("${task.replication.read-wait:1s}") Duration readWait,
+            @Value("${task.replication.max-staleness:5s}") Duration maxStaleness) {
+        FilterRegistrationBean<ReplicaReadFilter> registration =
+            new FilterRegistrationBean<>(new ReplicaReadFilter(replica, readWait, maxStaleness));
+        registration.addUrlPatterns("/tasks", "/tasks/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import com.example.demo.service.TaskSearchIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in name index behind {@code GET /tasks/search}, enabled by
+ * {@code task.search.enabled=true}. TaskService fills it from the store on startup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.search.enabled", havingValue = "true")
+public class TaskSearchConfig {
+
+    @Bean
+    public TaskSearchIndex taskSearchIndex() {
+        return new TaskSearchIndex();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.CachingTaskStore;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.JpaTaskStore;
+import com.example.demo.repository.MappedTaskStore;
+import com.example.demo.repository.PrimitiveTaskStore;
+import com.example.demo.repository.SequenceIdAllocator;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.TaskStore;
+import com.example.demo.repository.WalTaskStore;
+import com.example.demo.repository.WriteBehindTaskStore;
+import com.example.demo.service.CounterIdAllocator;
+import com.example.demo.service.ShardedIdAllocator;
+import com.example.demo.service.StripedIdAllocator;
+import com.example.demo.service.TaskIdAllocator;
+import com.example.demo.service.TaskShardRing;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Selects the TaskService storage engine with {@code task.store.type}, and the matching ID allocator.
+ */
+@Configuration
+public class TaskStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "task.store.type", havingValue = "concurrent", matchIfMissing = true)
+    public TaskStore concurrentTaskStore() {
+        return new ConcurrentTaskStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "task.store.type", havingValue = "primitive")
+    public TaskStore primitiveTaskStore(@Value("${task.store.initial-capacity:1024}") int initialCapacity) {
+        return new PrimitiveTaskStore(initialCapacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "task.store.type", havingValue = "mapped")
+    public TaskStore mappedTaskStore(@Value("${task.store.mapped.path:data/tasks.log}") Path path,
+                                     @Value("${task.store.mapped.segment-size:67108864}") int segmentSize,
+                                     @Value("${task.store.mapped.sync-writes:false}") boolean syncWrites) {
+        return new MappedTaskStore(path, segmentSize, syncWrites);
+    }
+
+    /**
+     * The concurrent store, made durable by a write-ahead log and snapshots in
+     * {@code task.store.wal.directory}. Closing the store on context shutdown takes a last
+     * snapshot; {@code task.store.wal.recovery-threads} of 0 uses every core for recovery.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "task.store.type", havingValue = "wal")
+    public WalTaskStore walTaskStore(MeterRegistry meterRegistry,
+                                     @Value("${task.store.wal.directory:data/wal}") Path directory,
+                                     @Value("${task.store.wal.sync-writes:true}") boolean syncWrites,
+                                     @Value("${task.store.wal.commit-delay:0ms}") Duration commitDelay,
+                                     @Value("${task.store.wal.sync-interval:1s}") Duration syncInterval,
+                                     @Value("${task.store.wal.max-batch:4096}") int maxBatch,
+                                     @Value("${task.store.wal.snapshot-interval:5m}") Duration snapshotInterval,
+                                     @Value("${task.store.wal.recovery-threads:0}") int recoveryThreads) {
+        int threads = recoveryThreads > 0 ? recoveryThreads : Runtime.getRuntime().availableProcessors();
+        WalTaskStore store = new WalTaskStore(new ConcurrentTaskStore(), directory, syncWrites, commitDelay,
+            syncInterval, maxBatch, snapshotInterval, threads);
+        store.bindTo(meterRegistry);
+        return store;
+    }
+
+    /**
+     * Lookups by ID are served from a read-through cache unless {@code task.store.cache.maximum-size} is 0.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "task.store.type", havingValue = "jpa")
+    public TaskStore jpaTaskStore(TaskRepository repository, EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                                  @Value("${task.store.cache.maximum-size:10000}") long cacheSize,
+                                  @Value("${task.store.cache.expire-after-write:10m}") Duration cacheTtl) {
+        TaskStore store = new JpaTaskStore(repository, entityManager, transactionManager, batchSize);
+        if (cacheSize <= 0) {
+            return store;
+        }
+        CachingTaskStore cached = new CachingTaskStore(store, cacheSize, cacheTtl);
+        cached.bindTo(meterRegistry);
+        return cached;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "task.store.type", havingValue = "jpa")
+    public TaskIdAllocator sequenceIdAllocator(JdbcTemplate jdbcTemplate, TaskStore taskStore,
+                                               ObjectProvider<TaskShardRing> ring,
+                                               @Value("${task.store.jpa.id-pool-size:50}") int poolSize,
+                                               @Value("${task.cluster.node-id:0}") int nodeId) {
+        return sharded(new SequenceIdAllocator(jdbcTemplate, "task_seq", poolSize, taskStore.lastId()),
+            ring.getIfAvailable(), nodeId);
+    }
+
+    /**
+     * Serves from memory and flushes changes to the database in the background. Closing the
+     * store on context shutdown writes whatever is still pending.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "task.store.type", havingValue = "write-behind")
+    public WriteBehindTaskStore writeBehindTaskStore(TaskRepository repository, EntityManager entityManager,
+                                                     PlatformTransactionManager transactionManager,
+                                                     MeterRegistry meterRegistry,
+                                                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize,
+                                                     @Value("${task.store.write-behind.capacity:10000}") int capacity,
+                                                     @Value("${task.store.write-behind.batch-size:500}") int batchSize,
+                                                     @Value("${task.store.write-behind.flush-interval:1s}") Duration flushInterval,
+                                                     @Value("${task.store.write-behind.offer-timeout:5s}") Duration offerTimeout) {
+        TaskStore database = new JpaTaskStore(repository, entityManager, transactionManager, jdbcBatchSize);
+        WriteBehindTaskStore store = new WriteBehindTaskStore(new ConcurrentTaskStore(), database,
+            capacity, batchSize, flushInterval, offerTimeout);
+        store.bindTo(meterRegistry);
+        return store;
+    }
+
+    /**
+     * In-memory stores continue from the highest stored ID, from one shared counter or, with
+     * {@code task.id.allocator=striped}, from per-core blocks (required when running several
+     * nodes that share nothing). In a sharded cluster ownership already keeps nodes apart, so
+     * {@code task.cluster.node-count} is ignored and either allocator works.
+     */
+    @Bean
+    @ConditionalOnMissingBean(TaskIdAllocator.class)
+    public TaskIdAllocator counterIdAllocator(TaskStore taskStore, ObjectProvider<TaskShardRing> ring,
+                                              @Value("${task.id.allocator:counter}") String type,
+                                              @Value("${task.id.block-size:64}") int blockSize,
+                                              @Value("${task.cluster.node-id:0}") int nodeId,
+                                              @Value("${task.cluster.node-count:1}") int nodeCount) {
+        TaskShardRing shards = ring.getIfAvailable();
+        if (shards != null) {
+            TaskIdAllocator ids = "striped".equals(type)
+                ? new StripedIdAllocator(taskStore.lastId(), blockSize)
+                : new CounterIdAllocator(taskStore.lastId() + 1);
+            return sharded(ids, shards, nodeId);
+        }
+        if ("striped".equals(type)) {
+            return new StripedIdAllocator(taskStore.lastId(), blockSize, nodeId, nodeCount);
+        }
+        if (nodeCount > 1) {
+            throw new IllegalStateException("task.cluster.node-count > 1 needs task.id.allocator=striped");
+        }
+        return new CounterIdAllocator(taskStore.lastId() + 1);
+    }
+
+    /**
+     * With {@code task.cluster.nodes} set, keeps only the IDs of this node's shard.
+     */
+    private static TaskIdAllocator sharded(TaskIdAllocator ids, TaskShardRing ring, int nodeId) {
+        return ring == null ? ids : new ShardedIdAllocator(ids, ring, nodeId);
+    }
+}
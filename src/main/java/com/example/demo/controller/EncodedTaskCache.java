@@ -0,0 +1,75 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * JSON bytes of recently read tasks, so a repeated {@code GET /tasks/{id}} writes stored bytes
+ * instead of running the task through Jackson again.
+ *
+ * Entries are keyed by ID and remember the version they were encoded from; a lookup for any
+ * other version re-encodes, so a renamed task is never served stale even if an invalidation
+ * is missed. Updates and deletes still invalidate, so dead entries do not wait for eviction.
+ * Caffeine bounds the entry count and keeps the frequently read tasks.
+ */
+public class EncodedTaskCache {
+
+    private static final class Encoded {
+        final int version;
+        final byte[] json;
+
+        Encoded(int version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+
+    private final ObjectWriter writer;
+    private final Cache<Integer, Encoded> cache;
+
+    /**
+     * @param objectMapper the mapper the JSON converter uses, so cached bytes match uncached ones
+     * @param maximumSize tasks kept encoded
+     */
+    public EncodedTaskCache(ObjectMapper objectMapper, long maximumSize) {
+        this.writer = objectMapper.writerFor(Task.class);
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Publishes hits, misses, evictions and size under {@code cache.*} with {@code cache=task_json}.
+     */
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "task_json");
+    }
+
+    /**
+     * The task as JSON. The returned array is shared and must not be modified.
+     */
+    public byte[] json(Task task) {
+        Encoded encoded = cache.getIfPresent(task.getId());
+        if (encoded != null && encoded.version == task.getVersion()) {
+            return encoded.json;
+        }
+        try {
+            byte[] json = writer.writeValueAsBytes(task);
+            cache.put(task.getId(), new Encoded(task.getVersion(), json));
+            return json;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode task " + task.getId(), e);
+        }
+    }
+
+    public void invalidate(int id) {
+        cache.invalidate(id);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.service.TaskEventBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of TaskEventController. Events are only pulled from the log as the
+ * connection asks for them, so a slow client pauses its own stream instead of buffering.
+ */
+public class ReactiveTaskEventHandler {
+
+    private final TaskEventBroadcaster broadcaster;
+
+    public ReactiveTaskEventHandler(TaskEventBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    public Mono<ServerResponse> streamEvents(ServerRequest request) {
+        String lastEventId = request.headers().firstHeader(TaskEventController.LAST_EVENT_ID);
+        Flux<ServerSentEvent<TaskEvent>> events = Flux.create(sink -> {
+            TaskEventBroadcaster.Subscription subscription = broadcaster.subscribe(lastEventId, new FluxEventSink(sink));
+            sink.onRequest(requested -> subscription.wake());
+            sink.onDispose(subscription::cancel);
+        });
+        return ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM)
+            .body(BodyInserters.fromServerSentEvents(events));
+    }
+
+    private final class FluxEventSink implements TaskEventBroadcaster.Sink {
+        private final FluxSink<ServerSentEvent<TaskEvent>> sink;
+
+        FluxEventSink(FluxSink<ServerSentEvent<TaskEvent>> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public long demand() {
+            return sink.requestedFromDownstream();
+        }
+
+        @Override
+        public void send(List<TaskEvent> events) {
+            for (TaskEvent event : events) {
+                sink.next(ServerSentEvent.builder(event)
+                    .id(broadcaster.eventId(event))
+                    .event(event.getEventName())
+                    .build());
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+            sink.next(ServerSentEvent.<TaskEvent>builder().comment("heartbeat").build());
+        }
+
+        @Override
+        public void reset(String resumeId) {
+            sink.next(ServerSentEvent.<TaskEvent>builder().id(resumeId).event("reset").build());
+        }
+
+        @Override
+        public void close() {
+            sink.complete();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.TaskUpdateRequest;
+import com.example.demo.exception.TaskVersionConflictException;
+import com.example.demo.model.Task;
+import com.example.demo.repository.ModificationStamp;
+import com.example.demo.service.TaskService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Non-blocking handlers for the Task API on the reactive (Netty) server
+ *
+ * Mirrors TaskController endpoint for endpoint; routes are declared in ReactiveWebConfig.
+ * Service calls run inline on the event loop for the in-memory stores and are moved to the
+ * bounded-elastic scheduler when TaskService reports a store that may block. Listing pulls
+ * tasks from the store iterator on demand, so a slow client throttles iteration instead of
+ * the whole list being buffered.
+ */
+public class ReactiveTaskHandler {
+
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    private static final ParameterizedTypeReference<List<String>> NAMES = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<TaskUpdateRequest>> UPDATES = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<Integer>> IDS = new ParameterizedTypeReference<>() {};
+    // Encoded here rather than by codecs: a registered CBOR encoder would be picked for any response
+    // without a content type, and the Smile encoder wraps streamed elements in a JSON array
+    private static final Map<MediaType, ObjectWriter> BINARY_FORMATS = Map.of(
+        MediaType.APPLICATION_CBOR, listWriter(Jackson2ObjectMapperBuilder.cbor().build()),
+        TaskFormats.SMILE, listWriter(Jackson2ObjectMapperBuilder.smile().build()));
+
+    private final TaskService service;
+    private final Scheduler scheduler;
+    private final EncodedTaskCache encodedTasks;
+
+    /**
+     * @param service The task service to use
+     */
+    public ReactiveTaskHandler(TaskService service) {
+        this(service, null);
+    }
+
+    /**
+     * @param encodedTasks JSON bytes of recently read tasks, or null to encode every response
+     */
+    public ReactiveTaskHandler(TaskService service, EncodedTaskCache encodedTasks) {
+        this.service = service;
+        this.scheduler = service.isBlocking() ? Schedulers.boundedElastic() : Schedulers.immediate();
+        this.encodedTasks = encodedTasks;
+    }
+
+    /**
+     * Creates a new task from the {@code task} query or form parameter
+     */
+    public Mono<ServerResponse> addTask(ServerRequest request) {
+        return taskParameter(request)
+            .flatMap(name -> call(() -> service.addTask(name)))
+            .flatMap(task -> ServerResponse.status(HttpStatus.CREATED).bodyValue(task));
+    }
+
+    public Mono<ServerResponse> addTasks(ServerRequest request) {
+        return batch(request.bodyToMono(NAMES).flatMap(names -> call(() -> service.addTasks(names, 0))));
+    }
+
+    public Mono<ServerResponse> addTasksFromStream(ServerRequest request) {
+        return batch(inChunks(request.bodyToFlux(String.class), service::addTasks));
+    }
+
+    public Mono<ServerResponse> updateTasks(ServerRequest request) {
+        return batch(request.bodyToMono(UPDATES).flatMap(updates -> call(() -> service.updateTasks(updates, 0))));
+    }
+
+    public Mono<ServerResponse> updateTasksFromStream(ServerRequest request) {
+        return batch(inChunks(request.bodyToFlux(TaskUpdateRequest.class), service::updateTasks));
+    }
+
+    public Mono<ServerResponse> deleteTasks(ServerRequest request) {
+        return batch(request.bodyToMono(IDS).flatMap(ids -> call(() -> service.deleteTasks(ids, 0))));
+    }
+
+    public Mono<ServerResponse> deleteTasksFromStream(ServerRequest request) {
+        return batch(inChunks(request.bodyToFlux(Integer.class), service::deleteTasks));
+    }
+
+    /**
+     * All tasks as a JSON array, encoded element by element as the client reads, or 304 if unchanged.
+     * CBOR or Smile instead when the client accepts one of them. No validators on a store other
+     * processes write, whose changes this node cannot see.
+     */
+    public Mono<ServerResponse> getTasks(ServerRequest request) {
+        MediaType format = TaskFormats.preferred(request.headers().accept());
+        if (service.isShared()) {
+            return allTasks(ServerResponse.ok().contentType(format), format);
+        }
+        ModificationStamp stamp = service.getModificationStamp();
+        String etag = TaskETags.forList(stamp);
+        Instant lastModified = Instant.ofEpochMilli(stamp.lastModified());
+        return request.checkNotModified(lastModified, etag)
+            .switchIfEmpty(Mono.defer(() ->
+                allTasks(ServerResponse.ok().eTag(etag).lastModified(lastModified).contentType(format), format)));
+    }
+
+    /**
+     * All tasks as newline-delimited JSON
+     */
+    public Mono<ServerResponse> streamTasks(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(tasks(), Task.class);
+    }
+
+    /**
+     * One keyset page, with a {@code Link: rel="next"} header when more tasks may follow
+     */
+    public Mono<ServerResponse> getTaskPage(ServerRequest request) {
+        int after = intParameter(request, "after", 0);
+        Integer before = request.queryParam("before").map(Integer::parseInt).orElse(null);
+        int limit = intParameter(request, "limit", 0);
+        if (after < 0) {
+            throw new IllegalArgumentException("After must not be negative");
+        }
+        return call(() -> before == null
+                ? service.getTasksAfter(after, limit)
+                : service.getTasksBetween(after, before, limit))
+            .flatMap(page -> {
+                ServerResponse.BodyBuilder response = ServerResponse.ok();
+                if (page.size() == limit) {
+                    response.header(HttpHeaders.LINK,
+                        TaskController.nextPageLink(page.get(page.size() - 1).getId(), before, limit));
+                }
+                return response.bodyValue(page);
+            });
+    }
+
+    /**
+     * Ranked name search, with {@code X-Total-Count} and a {@code Link: rel="next"} header when more results follow
+     */
+    public Mono<ServerResponse> searchTasks(ServerRequest request) {
+        if (!service.isSearchEnabled()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Search is disabled"));
+        }
+        String query = request.queryParam("q").orElseThrow(() ->
+            new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing required parameter: q"));
+        int offset = intParameter(request, "offset", 0);
+        int limit = intParameter(request, "limit", 20);
+        return call(() -> service.searchTasks(query, offset, limit))
+            .flatMap(page -> {
+                ServerResponse.BodyBuilder response = ServerResponse.ok()
+                    .header(TaskController.TOTAL_COUNT, String.valueOf(page.getTotal()));
+                if ((long) offset + limit < page.getTotal()) {
+                    response.header(HttpHeaders.LINK, TaskController.nextSearchLink(query, offset + limit, limit));
+                }
+                return response.bodyValue(page.getTasks());
+            });
+    }
+
+    public Mono<ServerResponse> getLatestTasks(ServerRequest request) {
+        int limit = intParameter(request, "limit", 20);
+        return call(() -> service.getLatestTasks(limit)).flatMap(ServerResponse.ok()::bodyValue);
+    }
+
+    public Mono<ServerResponse> getTask(ServerRequest request) {
+        int id = Integer.parseInt(request.pathVariable("id"));
+        return call(() -> service.getTaskById(id))
+            .switchIfEmpty(notFound(id))
+            .flatMap(task -> {
+                String etag = TaskETags.forTask(service.getDataEpoch(), task);
+                return request.checkNotModified(etag)
+                    .switchIfEmpty(Mono.defer(() -> {
+                        ServerResponse.BodyBuilder response = ServerResponse.ok().eTag(etag);
+                        return encodedTasks != null && TaskFormats.preferred(request.headers().accept())
+                                .equals(MediaType.APPLICATION_JSON)
+                            ? response.contentType(MediaType.APPLICATION_JSON).bodyValue(encodedTasks.json(task))
+                            : response.bodyValue(task);
+                    }));
+            });
+    }
+
+    /**
+     * Renames a task; with {@code If-Match}, only if it still has that ETag, else 412
+     */
+    public Mono<ServerResponse> updateTask(ServerRequest request) {
+        int id = Integer.parseInt(request.pathVariable("id"));
+        String epoch = service.getDataEpoch();
+        String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        int expectedVersion = ifMatch == null
+            ? TaskService.ANY_VERSION
+            : TaskETags.expectedVersion(epoch, ifMatch, id);
+        return taskParameter(request)
+            .flatMap(name -> call(() -> service.updateTask(id, name, expectedVersion)))
+            .doOnNext(task -> invalidate(id))
+            .switchIfEmpty(notFound(id))
+            .flatMap(task -> ServerResponse.ok().eTag(TaskETags.forTask(epoch, task)).bodyValue(task));
+    }
+
+    public Mono<ServerResponse> deleteTask(ServerRequest request) {
+        int id = Integer.parseInt(request.pathVariable("id"));
+        return call(() -> service.deleteTask(id))
+            .doOnNext(deleted -> invalidate(id))
+            .filter(Boolean::booleanValue)
+            .switchIfEmpty(notFound(id))
+            .flatMap(deleted -> ServerResponse.ok().bodyValue("Task deleted successfully"));
+    }
+
+    public Mono<ServerResponse> getTaskCount(ServerRequest request) {
+        return call(service::getTaskCount).flatMap(ServerResponse.ok()::bodyValue);
+    }
+
+    public Mono<ServerResponse> getTaskStats(ServerRequest request) {
+        return call(service::getTaskStats).flatMap(ServerResponse.ok()::bodyValue);
+    }
+
+    /**
+     * Route filter giving the same status codes and {@code {"error": ...}} bodies as GlobalExceptionHandler
+     */
+    public Mono<ServerResponse> handleErrors(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        Mono<ServerResponse> response;
+        try {
+            response = next.handle(request);
+        } catch (RuntimeException e) {
+            // Parameter parsing fails before any Mono is assembled
+            response = Mono.error(e);
+        }
+        return response
+            .onErrorResume(IllegalArgumentException.class, e -> error(HttpStatus.BAD_REQUEST, e.getMessage()))
+            .onErrorResume(TaskVersionConflictException.class, e -> error(HttpStatus.PRECONDITION_FAILED, e.getMessage()))
+            .onErrorResume(ResponseStatusException.class, e -> error(e.getStatusCode(), e.getReason()));
+    }
+
+    private Flux<Task> tasks() {
+        return Flux.fromIterable(service::iterateTasks).subscribeOn(scheduler);
+    }
+
+    private Mono<ServerResponse> allTasks(ServerResponse.BodyBuilder response, MediaType format) {
+        ObjectWriter binary = BINARY_FORMATS.get(format);
+        return binary == null
+            ? response.body(tasks(), Task.class)
+            : response.body(tasks().collectList().map(list -> encode(binary, list)), byte[].class);
+    }
+
+    private <T> Mono<T> call(Callable<T> operation) {
+        return Mono.fromCallable(operation).subscribeOn(scheduler);
+    }
+
+    /**
+     * Hands a decoded NDJSON body to the service {@value #BATCH_CHUNK_SIZE} items at a time
+     */
+    private <T> Mono<List<BatchItemResult>> inChunks(Flux<T> items,
+            BiFunction<List<T>, Integer, List<BatchItemResult>> operation) {
+        return Flux.defer(() -> {
+                AtomicInteger firstIndex = new AtomicInteger();
+                return items.buffer(BATCH_CHUNK_SIZE)
+                    .concatMap(chunk -> call(() -> operation.apply(chunk, firstIndex.getAndAdd(chunk.size()))));
+            })
+            .concatMapIterable(results -> results)
+            .collectList();
+    }
+
+    private static Mono<ServerResponse> batch(Mono<List<BatchItemResult>> results) {
+        return results.flatMap(ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)::bodyValue);
+    }
+
+    private static Mono<String> taskParameter(ServerRequest request) {
+        return Mono.justOrEmpty(request.queryParam("task"))
+            .switchIfEmpty(request.formData().mapNotNull(form -> form.getFirst("task")))
+            .switchIfEmpty(Mono.error(() ->
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing required parameter: task")));
+    }
+
+    private static ObjectWriter listWriter(ObjectMapper mapper) {
+        return mapper.writerFor(new TypeReference<List<Task>>() {});
+    }
+
+    private static byte[] encode(ObjectWriter writer, List<Task> tasks) {
+        try {
+            return writer.writeValueAsBytes(tasks);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode tasks", e);
+        }
+    }
+
+    private void invalidate(int id) {
+        if (encodedTasks != null) {
+            encodedTasks.invalidate(id);
+        }
+    }
+
+    private static int intParameter(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    private static <T> Mono<T> notFound(int id) {
+        return Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+            String.format("Task with ID %d not found", id)));
+    }
+
+    private static Mono<ServerResponse> error(HttpStatusCode status, String message) {
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(Map.of("error", message == null ? status.toString() : message));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Front of a follower: answers reads from the replica when it is fresh enough and sends
+ * everything else to the leader with a 307, which clients follow with the same method and body.
+ *
+ * A read is served locally when the replica has applied the client's
+ * {@value TaskReplica#MIN_POSITION}, waiting up to {@code readWait} for it (read-your-writes),
+ * and is no staler than the client's {@value TaskReplica#MAX_STALENESS}, or {@code maxStaleness}
+ * if the client sends none (bounded staleness). Local answers carry the replica's
+ * {@value TaskReplica#LOG_POSITION}.
+ */
+public class ReplicaReadFilter extends OncePerRequestFilter {
+
+    private final TaskReplica replica;
+    private final Duration readWait;
+    private final Duration maxStaleness;
+
+    public ReplicaReadFilter(TaskReplica replica, Duration readWait, Duration maxStaleness) {
+        this.replica = replica;
+        this.readWait = readWait;
+        this.maxStaleness = maxStaleness;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        if (isRead(request) && isFreshEnough(request)) {
+            String position = replica.position();
+            if (position != null) {
+                response.setHeader(TaskReplica.LOG_POSITION, position);
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+        replica.redirected();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String query = request.getQueryString();
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, replica.leaderUrl() + path + (query == null ? "" : "?" + query));
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private boolean isFreshEnough(HttpServletRequest request) throws ServletException {
+        String minPosition = request.getHeader(TaskReplica.MIN_POSITION);
+        try {
+            if (minPosition != null && !replica.awaitPosition(minPosition, readWait)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted waiting for the replica", e);
+        }
+        Duration bound = maxStaleness;
+        String requested = request.getHeader(TaskReplica.MAX_STALENESS);
+        if (requested != null) {
+            try {
+                bound = Duration.ofMillis(Long.parseLong(requested.trim()));
+            } catch (NumberFormatException e) {
+                // Unreadable bound: only the leader can be sure to satisfy it
+                return false;
+            }
+        }
+        return replica.staleness().compareTo(bound) <= 0;
+    }
+}
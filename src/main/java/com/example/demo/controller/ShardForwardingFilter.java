@@ -0,0 +1,52 @@
+package com.example.demo.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends every {@code /tasks/{id}} request (read, rename or delete) for a task owned by another
+ * node to that node, before TaskController sees it. Requests for local tasks, requests already
+ * forwarded by another node and all other paths pass through.
+ *
+ * Runs ahead of the form-content filter so the raw request body is still there to forward.
+ */
+public class ShardForwardingFilter extends OncePerRequestFilter {
+
+    private static final Pattern TASK_PATH = Pattern.compile("/tasks/(\\d{1,10})");
+
+    private final TaskCluster cluster;
+
+    public ShardForwardingFilter(TaskCluster cluster) {
+        this.cluster = cluster;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return TaskCluster.isShardLocal(request.getHeader(TaskCluster.SHARD_LOCAL));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Matcher path = TASK_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        if (path.matches()) {
+            long id = Long.parseLong(path.group(1));
+            // Out-of-range IDs are rejected by the controller wherever they land
+            if (id <= Integer.MAX_VALUE) {
+                int owner = cluster.ownerOf((int) id);
+                if (owner != cluster.nodeId()) {
+                    cluster.forward(request, response, owner);
+                    return;
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.exception.ShardUnavailableException;
+import com.example.demo.model.Task;
+import com.example.demo.service.TaskShardRing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * This node's view of a sharded cluster: which node owns a task ID, and the HTTP calls that
+ * reach the other nodes.
+ *
+ * Requests for a task held elsewhere are proxied to its owner, so clients can talk to any node.
+ * Whole-collection reads are scatter-gather: every other node is asked for its own shard in
+ * parallel while this node reads its own, and the results are merged. Calls between nodes carry
+ * {@link #SHARD_LOCAL}, which makes the receiver answer from its own shard without forwarding
+ * or fanning out again. A node that cannot be reached fails the request with 502 rather than
+ * returning a partial result. Batch writes are split by owner and each part applied where its
+ * tasks live; there a node that cannot be reached fails only its own items, with 502, since the
+ * other parts may already have been applied.
+ */
+public class TaskCluster implements Closeable {
+
+    /**
+     * Request header naming the calling node; the receiver answers from its own shard only.
+     */
+    public static final String SHARD_LOCAL = "X-Task-Shard-Local";
+
+    /**
+     * Response header on reads answered from one shard only, naming the node whose shard it is.
+     */
+    public static final String SHARD = "X-Task-Shard";
+
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(HttpHeaders.ACCEPT,
+        HttpHeaders.CONTENT_TYPE, HttpHeaders.IF_MATCH, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+    // Connection handling belongs to each hop
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive",
+        "transfer-encoding", "content-length", "date");
+
+    private final TaskShardRing ring;
+    private final int nodeId;
+    private final List<String> nodes;
+    private final RestClient rest;
+    private final ExecutorService scatterPool;
+    private Counter forwards;
+    private Counter peerFailures;
+
+    /**
+     * @param nodes base URL of every node, including any context path, indexed by node ID
+     * @param rest client for calls to other nodes, with the timeouts to apply
+     * @param scatterThreads threads making the calls of scatter-gather reads
+     */
+    public TaskCluster(TaskShardRing ring, int nodeId, List<String> nodes, RestClient rest, int scatterThreads) {
+        if (nodes.size() != ring.nodeCount()) {
+            throw new IllegalArgumentException("Expected " + ring.nodeCount() + " node URLs, got " + nodes.size());
+        }
+        if (nodeId < 0 || nodeId >= nodes.size()) {
+            throw new IllegalArgumentException("Node ID must be between 0 and node count - 1");
+        }
+        this.ring = ring;
+        this.nodeId = nodeId;
+        this.nodes = nodes.stream().map(TaskCluster::trimSlash).toList();
+        this.rest = rest;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scatterPool = Executors.newFixedThreadPool(scatterThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-cluster-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompositeMeterRegistry noop = new CompositeMeterRegistry();
+        this.forwards = Counter.builder("tasks.cluster.forwards").register(noop);
+        this.peerFailures = Counter.builder("tasks.cluster.peer.failures").register(noop);
+    }
+
+    /**
+     * Registers how many requests were proxied to another node and how many calls to other nodes failed.
+     */
+    public void bindTo(MeterRegistry registry) {
+        forwards = Counter.builder("tasks.cluster.forwards")
+            .description("Task requests proxied to the node owning the task")
+            .register(registry);
+        peerFailures = Counter.builder("tasks.cluster.peer.failures")
+            .description("Calls to other nodes that failed or timed out")
+            .register(registry);
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    public int ownerOf(int taskId) {
+        return ring.ownerOf(taskId);
+    }
+
+    /**
+     * Whether the request came from another node and must be answered from this shard alone.
+     */
+    public static boolean isShardLocal(String shardLocalHeader) {
+        return shardLocalHeader != null;
+    }
+
+    /**
+     * Proxies the request to node {@code owner} and copies its response back, status and all.
+     */
+    public void forward(HttpServletRequest request, HttpServletResponse response, int owner) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String query = request.getQueryString();
+        URI target = URI.create(nodes.get(owner) + path + (query == null ? "" : "?" + query));
+        byte[] body = request.getInputStream().readAllBytes();
+        forwards.increment();
+        try {
+            RestClient.RequestBodySpec call = rest.method(HttpMethod.valueOf(request.getMethod()))
+                .uri(target)
+                .headers(headers -> {
+                    for (String name : FORWARDED_REQUEST_HEADERS) {
+                        String value = request.getHeader(name);
+                        if (value != null) {
+                            headers.set(name, value);
+                        }
+                    }
+                    headers.set(SHARD_LOCAL, String.valueOf(nodeId));
+                });
+            if (body.length > 0) {
+                call.body(body);
+            }
+            call.exchange((clientRequest, clientResponse) -> {
+                response.setStatus(clientResponse.getStatusCode().value());
+                for (Map.Entry<String, List<String>> header : clientResponse.getHeaders().entrySet()) {
+                    if (!HOP_BY_HOP_HEADERS.contains(header.getKey().toLowerCase())) {
+                        header.getValue().forEach(value -> response.addHeader(header.getKey(), value));
+                    }
+                }
+                StreamUtils.copy(clientResponse.getBody(), response.getOutputStream());
+                return null;
+            });
+        } catch (RestClientException e) {
+            peerFailures.increment();
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.BAD_GATEWAY.value(), "Node " + owner + " holding the task is unavailable");
+            }
+        }
+    }
+
+    /**
+     * Every task in the cluster in ID order: this node's from {@code local}, the rest from the
+     * other nodes, fetched while {@code local} runs.
+     *
+     * @throws ShardUnavailableException if another node could not be read
+     */
+    public List<Task> gatherTasks(Supplier<List<Task>> local) {
+        List<CompletableFuture<Task[]>> remote = scatter("/tasks", Task[].class);
+        List<Task> merged = new ArrayList<>(local.get());
+        for (Task[] tasks : join(remote)) {
+            merged.addAll(List.of(tasks));
+        }
+        merged.sort(Comparator.comparingInt(Task::getId));
+        return merged;
+    }
+
+    /**
+     * @throws ShardUnavailableException if another node could not be read
+     */
+    public int gatherCount(Supplier<Integer> local) {
+        List<CompletableFuture<Integer>> remote = scatter("/tasks/count", Integer.class);
+        int count = local.get();
+        for (int shardCount : join(remote)) {
+            count += shardCount;
+        }
+        return count;
+    }
+
+    /**
+     * Applies a batch of writes to existing tasks: the items owned by other nodes are sent to
+     * their owners as {@code method /tasks/batch} calls, in parallel while {@code local} applies
+     * the rest. Results come back in item order, numbered from {@code firstIndex}.
+     *
+     * @param idOf task ID of an item; IDs below 1 stay here to be rejected locally
+     * @param local applies items on this node, numbering results from the given index
+     */
+    public <T> List<BatchItemResult> applyBatch(HttpMethod method, List<T> items, int firstIndex, ToIntFunction<T> idOf,
+                                                BiFunction<List<T>, Integer, List<BatchItemResult>> local) {
+        // Positions of the items each node owns, in item order
+        Map<Integer, List<Integer>> positionsByOwner = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            int id = idOf.applyAsInt(items.get(i));
+            int owner = id < 1 ? nodeId : ring.ownerOf(id);
+            positionsByOwner.computeIfAbsent(owner, node -> new ArrayList<>()).add(i);
+        }
+        if (positionsByOwner.keySet().equals(Set.of(nodeId))) {
+            return local.apply(items, firstIndex);
+        }
+
+        Map<Integer, CompletableFuture<BatchItemResult[]>> remote = new TreeMap<>();
+        positionsByOwner.forEach((owner, positions) -> {
+            if (owner != nodeId) {
+                List<T> part = positions.stream().map(items::get).toList();
+                forwards.increment();
+                remote.put(owner, CompletableFuture.supplyAsync(() -> sendBatch(method, owner, part), scatterPool));
+            }
+        });
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<Integer> localPositions = positionsByOwner.getOrDefault(nodeId, List.of());
+        if (!localPositions.isEmpty()) {
+            place(local.apply(localPositions.stream().map(items::get).toList(), 0), localPositions, results);
+        }
+        remote.forEach((owner, call) -> {
+            List<Integer> positions = positionsByOwner.get(owner);
+            BatchItemResult[] part = call.join();
+            if (part == null || part.length != positions.size()) {
+                for (int position : positions) {
+                    results[position] = BatchItemResult.failure(position, HttpStatus.BAD_GATEWAY.value(),
+                        "Node " + owner + " holding the task is unavailable");
+                }
+            } else {
+                place(List.of(part), positions, results);
+            }
+        });
+        for (BatchItemResult result : results) {
+            result.setIndex(firstIndex + result.getIndex());
+        }
+        return List.of(results);
+    }
+
+    @Override
+    public void close() {
+        scatterPool.shutdownNow();
+    }
+
+    private <T> List<CompletableFuture<T>> scatter(String path, Class<T> type) {
+        List<CompletableFuture<T>> calls = new ArrayList<>(nodes.size() - 1);
+        for (int node = 0; node < nodes.size(); node++) {
+            if (node == nodeId) {
+                continue;
+            }
+            int peer = node;
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return rest.get()
+                        .uri(URI.create(nodes.get(peer) + path))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(SHARD_LOCAL, String.valueOf(nodeId))
+                        .retrieve()
+                        .body(type);
+                } catch (RestClientException e) {
+                    peerFailures.increment();
+                    throw new ShardUnavailableException(peer, e);
+                }
+            }, scatterPool));
+        }
+        return calls;
+    }
+
+    /**
+     * @return the owner's results, or null if it could not be reached
+     */
+    private BatchItemResult[] sendBatch(HttpMethod method, int owner, List<?> part) {
+        try {
+            return rest.method(method)
+                .uri(URI.create(nodes.get(owner) + "/tasks/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(SHARD_LOCAL, String.valueOf(nodeId))
+                .body(part)
+                .retrieve()
+                .body(BatchItemResult[].class);
+        } catch (RestClientException e) {
+            peerFailures.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the results of one part at the items' positions, renumbered by position.
+     */
+    private static void place(List<BatchItemResult> part, List<Integer> positions, BatchItemResult[] results) {
+        for (int i = 0; i < part.size(); i++) {
+            BatchItemResult result = part.get(i);
+            int position = positions.get(i);
+            result.setIndex(position);
+            results[position] = result;
+        }
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> calls) {
+        List<T> results = new ArrayList<>(calls.size());
+        try {
+            for (CompletableFuture<T> call : calls) {
+                results.add(call.join());
+            }
+        } catch (CompletionException e) {
+            calls.forEach(call -> call.cancel(true));
+            if (e.getCause() instanceof ShardUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private static String trimSlash(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -1,14 +1,43 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.TaskSearchPage;
+import com.example.demo.dto.TaskStats;
+import com.example.demo.dto.TaskUpdateRequest;
+import com.example.demo.exception.ShardUnavailableException;
+import com.example.demo.exception.TaskVersionConflictException;
 import com.example.demo.model.Task;
+import com.example.demo.repository.ModificationStamp;
 import com.example.demo.service.TaskService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * Task REST Controller with Quality Improvements
@@ -24,9 +53,19 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/tasks")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TaskController {
 
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final String TOTAL_COUNT = "X-Total-Count";
+    private static final int STREAM_FLUSH_INTERVAL = 256;
+    private static final int BATCH_CHUNK_SIZE = 1000;
+
     private final TaskService service;
+    private final ObjectMapper objectMapper;
+    private final EncodedTaskCache encodedTasks;
+    private final TaskCluster cluster;
+    private final TaskReadCoalescer coalescer;
 
     /**
      * Constructor with dependency injection
@@ -34,7 +73,47 @@ public class TaskController {
      * @param service The task service to use
      */
     public TaskController(TaskService service) {
+        this(service, new ObjectMapper());
+    }
+
+    /**
+     * @param service The task service to use
+     * @param objectMapper The mapper used to write streamed tasks
+     */
+    public TaskController(TaskService service, ObjectMapper objectMapper) {
+        this(service, objectMapper, null, null);
+    }
+
+    /**
+     * @param service The task service to use
+     * @param objectMapper The mapper used to write streamed tasks
+     * @param encodedTasks JSON bytes of recently read tasks, or null
+     * @param cluster The other shards, or null
+     */
+    public TaskController(TaskService service, ObjectMapper objectMapper, @Nullable EncodedTaskCache encodedTasks,
+                          @Nullable TaskCluster cluster) {
+        this(service, objectMapper, encodedTasks, cluster, null);
+    }
+
+    /**
+     * Constructor used by Spring so streaming shares the application's Jackson configuration
+     * 
+     * @param service The task service to use
+     * @param objectMapper The mapper used to write streamed tasks
+     * @param encodedTasks JSON bytes of recently read tasks, present when
+     *                     {@code task.web.encoded-cache.maximum-size} is set
+     * @param cluster The other shards, present when {@code task.cluster.nodes} is set
+     * @param coalescer Shares one response among identical concurrent reads, present when
+     *                  {@code task.web.coalesce.window} is set
+     */
+    @Autowired
+    public TaskController(TaskService service, ObjectMapper objectMapper, @Nullable EncodedTaskCache encodedTasks,
+                          @Nullable TaskCluster cluster, @Nullable TaskReadCoalescer coalescer) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.encodedTasks = encodedTasks;
+        this.cluster = cluster;
+        this.coalescer = coalescer;
     }
 
     /**
@@ -63,33 +142,245 @@ public class TaskController {
     }
 
     /**
-     * Retrieves all tasks
+     * Creates many tasks in one request
+     * 
+     * @param names The task names
+     * @return One result per name, in request order
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> addTasks(@RequestBody List<String> names) {
+        return ResponseEntity.ok(service.addTasks(names, 0));
+    }
+
+    /**
+     * Creates many tasks from a newline-delimited JSON stream of names, in chunks
+     * 
+     * @param body The request body, one JSON string per line
+     * @return One result per name, in request order
+     */
+    @PostMapping(value = "/batch", consumes = NDJSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> addTasksFromStream(InputStream body) throws IOException {
+        return ResponseEntity.ok(readInChunks(body, String.class, service::addTasks));
+    }
+
+    /**
+     * Renames many tasks in one request
+     * 
+     * @param updates The task IDs and their new names
+     * @param shardLocal Set by other nodes to apply the updates to this node's shard only
+     * @return One result per update, in request order; in a cluster each update is applied by
+     *         the node owning the task
+     */
+    @PutMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> updateTasks(@RequestBody List<TaskUpdateRequest> updates,
+            @RequestHeader(value = TaskCluster.SHARD_LOCAL, required = false) String shardLocal) {
+        return ResponseEntity.ok(updateOnOwners(shardLocal).apply(updates, 0));
+    }
+
+    /**
+     * Renames many tasks from a newline-delimited JSON stream, in chunks
+     * 
+     * @param body The request body, one {@code {"id":..,"name":..}} object per line
+     * @param shardLocal Set by other nodes to apply the updates to this node's shard only
+     * @return One result per update, in request order
+     */
+    @PutMapping(value = "/batch", consumes = NDJSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> updateTasksFromStream(InputStream body,
+            @RequestHeader(value = TaskCluster.SHARD_LOCAL, required = false) String shardLocal) throws IOException {
+        return ResponseEntity.ok(readInChunks(body, TaskUpdateRequest.class, updateOnOwners(shardLocal)));
+    }
+
+    /**
+     * Deletes many tasks in one request
+     * 
+     * @param ids The task IDs to delete
+     * @param shardLocal Set by other nodes to delete from this node's shard only
+     * @return One result per ID, in request order; in a cluster each task is deleted by the
+     *         node owning it
+     */
+    @DeleteMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> deleteTasks(@RequestBody List<Integer> ids,
+            @RequestHeader(value = TaskCluster.SHARD_LOCAL, required = false) String shardLocal) {
+        return ResponseEntity.ok(deleteOnOwners(shardLocal).apply(ids, 0));
+    }
+
+    /**
+     * Deletes many tasks from a newline-delimited JSON stream of IDs, in chunks
      * 
-     * @return List of all tasks
+     * @param body The request body, one ID per line
+     * @param shardLocal Set by other nodes to delete from this node's shard only
+     * @return One result per ID, in request order
+     */
+    @DeleteMapping(value = "/batch", consumes = NDJSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> deleteTasksFromStream(InputStream body,
+            @RequestHeader(value = TaskCluster.SHARD_LOCAL, required = false) String shardLocal) throws IOException {
+        return ResponseEntity.ok(readInChunks(body, Integer.class, deleteOnOwners(shardLocal)));
+    }
+
+    /**
+     * Retrieves all tasks, as JSON or, negotiated by {@code Accept}, as {@code application/cbor}
+     * or {@code application/x-jackson-smile}, which are smaller and cheaper to encode
+     * 
+     * @param request Used to answer {@code If-None-Match}/{@code If-Modified-Since} with 304
+     * @return List of all tasks, or 304 without touching the store if nothing changed. In a
+     *         cluster, the tasks of every shard merged in ID order, without validators; likewise
+     *         on a store other processes write, whose changes this node cannot see. JSON is
+     *         shared with identical concurrent requests when coalescing is enabled.
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getTasks() {
+    public ResponseEntity<?> getTasks(WebRequest request) {
         try {
+            if (isClusterEntryPoint(request.getHeader(TaskCluster.SHARD_LOCAL))) {
+                return ResponseEntity.ok(cluster.gatherTasks(service::getTasks));
+            }
+            // Tag taken before the scan: a write during the scan makes the tag stale, never the body
+            ModificationStamp stamp = service.getModificationStamp();
+            if (!service.isShared() && request.checkNotModified(TaskETags.forList(stamp), stamp.lastModified())) {
+                return null;
+            }
+            if (coalescer != null && prefersJson(request)) {
+                // Keyed by the count as of now, which is at least the tag's, so the body is never older
+                byte[] json = coalescer.get("tasks", stamp.count(),
+                    () -> new TaskReadCoalescer.Encoded(null, writeJson(service.getTasks()))).getJson();
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+            }
             List<Task> tasks = service.getTasks();
             return ResponseEntity.ok(tasks);
+        } catch (ShardUnavailableException e) {
+            throw e; // Mapped to 502 by GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 "An error occurred while retrieving tasks");
         }
     }
 
+    /**
+     * Retrieves one keyset page of tasks ordered by ID
+     * 
+     * @param after Only tasks with an ID greater than this are returned; not negative
+     * @param before Optional upper bound; only tasks with an ID lower than this are returned
+     * @param limit Maximum number of tasks in the page
+     * @return The page, with a {@code Link: rel="next"} header when more tasks may follow. In a
+     *         cluster, this node's shard only, marked by an {@code X-Task-Shard} header
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<Task>> getTaskPage(@RequestParam(defaultValue = "0") int after,
+                                                  @RequestParam(required = false) Integer before,
+                                                  @RequestParam int limit) {
+        if (after < 0) {
+            throw new IllegalArgumentException("After must not be negative");
+        }
+        List<Task> page = before == null
+            ? service.getTasksAfter(after, limit)
+            : service.getTasksBetween(after, before, limit);
+        ResponseEntity.BodyBuilder response = shardScoped(ResponseEntity.ok());
+        if (page.size() == limit) {
+            response.header(HttpHeaders.LINK, nextPageLink(page.get(page.size() - 1).getId(), before, limit));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Retrieves the most recently created tasks
+     * 
+     * @param limit Maximum number of tasks to return
+     * @return The newest tasks, newest first; in a cluster, of this node's shard only, marked by
+     *         an {@code X-Task-Shard} header
+     */
+    @GetMapping("/latest")
+    public ResponseEntity<List<Task>> getLatestTasks(@RequestParam(defaultValue = "20") int limit) {
+        return shardScoped(ResponseEntity.ok()).body(service.getLatestTasks(limit));
+    }
+
+    /**
+     * Searches task names
+     * 
+     * @param q Words the name must contain; the last word also matches as a prefix
+     * @param offset Number of ranked results to skip
+     * @param limit Maximum number of tasks in the page
+     * @return Exact matches first, then prefix matches, newest first within each, with the
+     *         overall match count in {@code X-Total-Count} and a {@code Link: rel="next"} header
+     *         when more results follow; 404 unless {@code task.search.enabled} is set. In a
+     *         cluster, this node's shard only, marked by an {@code X-Task-Shard} header
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTasks(@RequestParam String q,
+                                         @RequestParam(defaultValue = "0") int offset,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        if (!service.isSearchEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Search is disabled"));
+        }
+        TaskSearchPage page = service.searchTasks(q, offset, limit);
+        ResponseEntity.BodyBuilder response = shardScoped(ResponseEntity.ok())
+            .header(TOTAL_COUNT, String.valueOf(page.getTotal()));
+        if ((long) offset + limit < page.getTotal()) {
+            response.header(HttpHeaders.LINK, nextSearchLink(q, offset + limit, limit));
+        }
+        return response.body(page.getTasks());
+    }
+
+    /**
+     * Streams all tasks as newline-delimited JSON while iterating the store
+     * 
+     * @return A streaming body that never materializes the full task list; in a cluster, of
+     *         this node's shard only, marked by an {@code X-Task-Shard} header
+     */
+    @GetMapping(produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasks() {
+        StreamingResponseBody body = out -> {
+            ObjectWriter writer = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                Iterator<Task> tasks = service.iterateTasks();
+                int written = 0;
+                while (tasks.hasNext()) {
+                    writer.writeValue(generator, tasks.next());
+                    generator.writeRaw('\n');
+                    if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+        return shardScoped(ResponseEntity.ok()).contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
     /**
      * Retrieves a specific task by ID
      * 
      * @param id The task ID
-     * @return The task if found
+     * @param request Used to answer {@code If-None-Match} with 304
+     * @return The task if found, or 304 without a body if the client's copy is current. JSON
+     *         comes from the encoded-task cache when it is enabled, and is shared with identical
+     *         concurrent requests when coalescing is enabled.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(@PathVariable int id) {
+    public ResponseEntity<?> getTask(@PathVariable int id, WebRequest request) {
         try {
-            Task task = service.getTaskById(id);
+            ModificationStamp stamp = service.getModificationStamp();
+            boolean json = prefersJson(request);
+            Task task;
+            byte[] body = null;
+            if (coalescer != null && json) {
+                TaskReadCoalescer.Encoded read = coalescer.get("tasks/" + id, stamp.count(),
+                    () -> encode(service.getTaskById(id)));
+                task = read.getTask();
+                body = read.getJson();
+            } else {
+                task = service.getTaskById(id);
+            }
             // SonarQube Fix: Extract common validation to reduce duplication
             validateTaskExists(task, id);
+            if (request.checkNotModified(TaskETags.forTask(service.getDataEpoch(), task))) {
+                return null;
+            }
+            if (body == null && encodedTasks != null && json) {
+                body = encodedTasks.json(task);
+            }
+            if (body != null) {
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+            }
             return ResponseEntity.ok(task);
             
         } catch (IllegalArgumentException e) {
@@ -105,19 +396,27 @@ public class TaskController {
      * 
      * @param id The task ID to update
      * @param task The new task name
-     * @return The updated task
+     * @param ifMatch Optional ETag the task must still have; otherwise 412 and nothing changes
+     * @return The updated task, with its new ETag
      */
     @PutMapping("/{id}")
     public ResponseEntity<Task> updateTask(@PathVariable int id, 
-                                         @RequestParam @NotBlank String task) {
+                                         @RequestParam @NotBlank String task,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Task updated = service.updateTask(id, task);
+            String epoch = service.getDataEpoch();
+            Task updated = ifMatch == null
+                ? service.updateTask(id, task)
+                : service.updateTask(id, task, TaskETags.expectedVersion(epoch, ifMatch, id));
             // SonarQube Fix: Use extracted validation method
             validateTaskExists(updated, id);
-            return ResponseEntity.ok(updated);
+            invalidate(id);
+            return ResponseEntity.ok().eTag(TaskETags.forTask(epoch, updated)).body(updated);
             
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (TaskVersionConflictException e) {
+            throw e; // Mapped to 412 by GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 "An error occurred while updating the task");
@@ -134,6 +433,7 @@ public class TaskController {
     public ResponseEntity<String> deleteTask(@PathVariable int id) {
         try {
             boolean deleted = service.deleteTask(id);
+            invalidate(id);
             if (!deleted) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     String.format("Task with ID %d not found", id));
@@ -153,19 +453,141 @@ public class TaskController {
     /**
      * Gets task count (utility endpoint)
      * 
-     * @return Current number of tasks
+     * @param shardLocal Set by other nodes to count this node's shard only
+     * @return Current number of tasks, across all shards in a cluster
      */
     @GetMapping("/count")
-    public ResponseEntity<Integer> getTaskCount() {
+    public ResponseEntity<Integer> getTaskCount(
+            @RequestHeader(value = TaskCluster.SHARD_LOCAL, required = false) String shardLocal) {
         try {
-            int count = service.getTaskCount();
+            int count = isClusterEntryPoint(shardLocal)
+                ? cluster.gatherCount(service::getTaskCount)
+                : service.getTaskCount();
             return ResponseEntity.ok(count);
+        } catch (ShardUnavailableException e) {
+            throw e; // Mapped to 502 by GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 "An error occurred while counting tasks");
         }
     }
+
+    /**
+     * Live aggregates of this node's tasks: count, create/rename/delete rates and name lengths.
+     * Nothing is scanned; in a cluster each node reports its own shard, named by an
+     * {@code X-Task-Shard} header.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getTaskStats() {
+        try {
+            return shardScoped(ResponseEntity.ok()).body(service.getTaskStats());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "An error occurred while reading task statistics");
+        }
+    }
     
+    /**
+     * Whether this request should fan out to the whole cluster rather than read this shard.
+     */
+    private boolean isClusterEntryPoint(String shardLocalHeader) {
+        return cluster != null && !TaskCluster.isShardLocal(shardLocalHeader);
+    }
+
+    private BiFunction<List<TaskUpdateRequest>, Integer, List<BatchItemResult>> updateOnOwners(String shardLocal) {
+        if (!isClusterEntryPoint(shardLocal)) {
+            return service::updateTasks;
+        }
+        return (updates, firstIndex) -> cluster.applyBatch(HttpMethod.PUT, updates, firstIndex,
+            update -> update == null ? 0 : update.getId(), service::updateTasks);
+    }
+
+    private BiFunction<List<Integer>, Integer, List<BatchItemResult>> deleteOnOwners(String shardLocal) {
+        if (!isClusterEntryPoint(shardLocal)) {
+            return service::deleteTasks;
+        }
+        return (ids, firstIndex) -> cluster.applyBatch(HttpMethod.DELETE, ids, firstIndex,
+            id -> id == null ? 0 : id, service::deleteTasks);
+    }
+
+    /**
+     * Marks a response read from this node's shard alone while other shards exist.
+     */
+    private ResponseEntity.BodyBuilder shardScoped(ResponseEntity.BodyBuilder response) {
+        if (cluster != null) {
+            response.header(TaskCluster.SHARD, String.valueOf(cluster.nodeId()));
+        }
+        return response;
+    }
+
+    /**
+     * Whether JSON is the format content negotiation picks for this request.
+     */
+    private boolean prefersJson(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept == null
+            || TaskFormats.preferred(MediaType.parseMediaTypes(accept)).equals(MediaType.APPLICATION_JSON);
+    }
+
+    private TaskReadCoalescer.Encoded encode(Task task) {
+        if (task == null) {
+            return new TaskReadCoalescer.Encoded(null, null);
+        }
+        return new TaskReadCoalescer.Encoded(task, encodedTasks != null ? encodedTasks.json(task) : writeJson(task));
+    }
+
+    /**
+     * JSON as the message converter would write it, for responses shared as bytes.
+     */
+    private byte[] writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode response", e);
+        }
+    }
+
+    private void invalidate(int id) {
+        if (encodedTasks != null) {
+            encodedTasks.invalidate(id);
+        }
+    }
+
+    /**
+     * Builds the {@code Link} header value pointing at the page after {@code nextAfter}
+     */
+    static String nextPageLink(int nextAfter, Integer before, int limit) {
+        String range = before == null ? "" : "&before=" + before;
+        return String.format("</tasks?after=%d%s&limit=%d>; rel=\"next\"", nextAfter, range, limit);
+    }
+
+    static String nextSearchLink(String query, int nextOffset, int limit) {
+        return String.format("</tasks/search?q=%s&offset=%d&limit=%d>; rel=\"next\"",
+            URLEncoder.encode(query, StandardCharsets.UTF_8), nextOffset, limit);
+    }
+
+    /**
+     * Parses an NDJSON body lazily and hands it to the service {@value #BATCH_CHUNK_SIZE} items at a time
+     */
+    private <T> List<BatchItemResult> readInChunks(InputStream body, Class<T> type,
+            BiFunction<List<T>, Integer, List<BatchItemResult>> operation) throws IOException {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(body)) {
+            while (items.hasNext()) {
+                chunk.add(items.next());
+                if (chunk.size() == BATCH_CHUNK_SIZE) {
+                    results.addAll(operation.apply(chunk, results.size()));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(operation.apply(chunk, results.size()));
+        }
+        return results;
+    }
+
     /**
      * SonarQube Fix: Extract common validation logic to reduce code duplication
      * Validates that a task exists and throws appropriate exception if not
@@ -0,0 +1,56 @@
+package com.example.demo.controller;
+
+import com.example.demo.exception.TaskVersionConflictException;
+import com.example.demo.model.Task;
+import com.example.demo.repository.ModificationStamp;
+import com.example.demo.service.TaskService;
+
+/**
+ * Entity tags for the task endpoints, shared by the servlet and reactive APIs.
+ *
+ * A task is tagged {@code "<epoch>.<version>"} with the data epoch of TaskService, the epoch of
+ * the leader's event log, so a tag from a follower still matches when the write is sent to the
+ * leader. The task list is tagged {@code W/"<epoch>-<count>"} from this process's
+ * ModificationStamp, since the count is local. Either epoch keeps tags handed out before a
+ * restart from matching unrelated content afterwards.
+ *
+ * Task tags are strong because {@code If-Match} compares strongly. The list tag is weak: it is
+ * only used with {@code If-None-Match}, and Tomcat does not compress a response with a strong
+ * tag, since the compressed bytes would no longer match it.
+ */
+final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    static String forTask(String dataEpoch, Task task) {
+        return "\"" + dataEpoch + "." + task.getVersion() + "\"";
+    }
+
+    static String forList(ModificationStamp stamp) {
+        return "W/\"" + Long.toString(stamp.epoch(), 36) + "-" + stamp.count() + "\"";
+    }
+
+    /**
+     * The task version an {@code If-Match} header asks for, or {@link TaskService#ANY_VERSION} for {@code *}.
+     *
+     * @throws TaskVersionConflictException if no listed tag is a current-epoch task tag; weak tags never match
+     */
+    static int expectedVersion(String dataEpoch, String ifMatch, int id) {
+        String prefix = "\"" + dataEpoch + ".";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return TaskService.ANY_VERSION;
+            }
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Integer.parseInt(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // Not one of ours; try the next tag
+                }
+            }
+        }
+        throw new TaskVersionConflictException(id);
+    }
+}
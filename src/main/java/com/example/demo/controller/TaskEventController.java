@@ -0,0 +1,93 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.service.TaskEventBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Server-Sent Events stream of task mutations, so consumers stop polling {@code GET /tasks}.
+ *
+ * Each event is named {@code created}, {@code updated} or {@code deleted}, carries the task as
+ * JSON and has an ID the client sends back as {@code Last-Event-ID} to resume after a
+ * reconnect. A {@code reset} event means changes were missed: reload {@code GET /tasks}, then
+ * keep reading. Requests hold no thread while waiting; TaskEventBroadcaster writes to all
+ * streams from a small pool.
+ */
+@RestController
+@RequestMapping("/tasks")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskEventController {
+
+    static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final TaskEventBroadcaster broadcaster;
+    private final long timeoutMillis;
+
+    /**
+     * @param timeout how long a stream stays open before the client has to reconnect
+     */
+    public TaskEventController(TaskEventBroadcaster broadcaster,
+                               @Value("${task.events.timeout:30m}") Duration timeout) {
+        this.broadcaster = broadcaster;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Subscribes to task mutations
+     * 
+     * @param lastEventId ID of the last event the client saw, to resume after it
+     * @return An open event stream
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        TaskEventBroadcaster.Subscription subscription = broadcaster.subscribe(lastEventId, new EmitterSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    private final class EmitterSink implements TaskEventBroadcaster.Sink {
+        private final SseEmitter emitter;
+
+        EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(List<TaskEvent> events) throws Exception {
+            for (TaskEvent event : events) {
+                emitter.send(SseEmitter.event()
+                    .id(broadcaster.eventId(event))
+                    .name(event.getEventName())
+                    .data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        @Override
+        public void heartbeat() throws Exception {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void reset(String resumeId) throws Exception {
+            emitter.send(SseEmitter.event().id(resumeId).name("reset").data(""));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
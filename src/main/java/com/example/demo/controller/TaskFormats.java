@@ -0,0 +1,40 @@
+package com.example.demo.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response formats for task bodies, shared by the servlet and reactive APIs.
+ */
+final class TaskFormats {
+
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final List<MediaType> BINARY = List.of(MediaType.APPLICATION_CBOR, SMILE);
+
+    private TaskFormats() {
+    }
+
+    /**
+     * The first binary format in the client's order of preference, unless JSON (or a wildcard
+     * covering it) comes before it; JSON also when nothing matches.
+     */
+    static MediaType preferred(List<MediaType> accepted) {
+        List<MediaType> sorted = new ArrayList<>(accepted);
+        MimeTypeUtils.sortBySpecificity(sorted);
+        for (MediaType type : sorted) {
+            for (MediaType binary : BINARY) {
+                if (type.equalsTypeAndSubtype(binary)) {
+                    return binary;
+                }
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                break;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
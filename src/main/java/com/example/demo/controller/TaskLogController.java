@@ -0,0 +1,130 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.dto.TaskLogEntry;
+import com.example.demo.dto.TaskLogPage;
+import com.example.demo.model.Task;
+import com.example.demo.service.TaskEventLog;
+import com.example.demo.service.TaskService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The mutation log followers replicate from: a snapshot to start with, then every create,
+ * rename and delete in order, read from the same TaskEventLog as the change stream.
+ *
+ * Reading the log long-polls: with {@code wait}, a request that finds nothing new parks until
+ * the next mutation or the deadline, so an idle follower makes one request per {@code wait}
+ * and a busy one gets each mutation as soon as it is published. A follower further behind
+ * than the log's capacity is told to reset and reload the snapshot.
+ */
+@RestController
+@RequestMapping("/tasks/log")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskLogController {
+
+    static final int MAX_PAGE_SIZE = 10_000;
+    static final long MAX_WAIT_MILLIS = 30_000;
+
+    private final TaskService service;
+    private final TaskEventLog log;
+    private final Set<Thread> waiting = ConcurrentHashMap.newKeySet();
+
+    public TaskLogController(TaskService service, TaskEventLog log) {
+        this.service = service;
+        this.log = log;
+        log.onPublish(() -> {
+            if (!waiting.isEmpty()) {
+                waiting.forEach(LockSupport::unpark);
+            }
+        });
+    }
+
+    /**
+     * Reads the mutation log
+     *
+     * @param after Position returned by the previous page or the snapshot
+     * @param limit Maximum number of entries
+     * @param wait Milliseconds to wait for a mutation if there is none yet
+     * @return The entries after {@code after}, or a reset if they are no longer all in the log
+     */
+    @GetMapping
+    public ResponseEntity<TaskLogPage> readLog(@RequestParam String after,
+                                               @RequestParam(defaultValue = "1000") int limit,
+                                               @RequestParam(defaultValue = "0") long wait) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (wait < 0 || wait > MAX_WAIT_MILLIS) {
+            throw new IllegalArgumentException("Wait must be between 0 and " + MAX_WAIT_MILLIS + " ms");
+        }
+        long from = log.sequenceOf(after);
+        List<TaskEvent> events = from < 0 ? null : awaitEvents(from, limit, wait);
+        String head = log.eventId(log.lastSequence());
+        if (events == null) {
+            return ResponseEntity.ok(new TaskLogPage(null, head, true, List.of()));
+        }
+        List<TaskLogEntry> entries = new ArrayList<>(events.size());
+        for (TaskEvent event : events) {
+            if (!event.isSuperseded()) {
+                entries.add(TaskLogEntry.of(event));
+            }
+        }
+        long position = events.isEmpty() ? from : events.get(events.size() - 1).getSequence();
+        return ResponseEntity.ok(new TaskLogPage(log.eventId(position), head, false, entries));
+    }
+
+    /**
+     * Every task with its version, and the log position to continue from. The position is
+     * taken first, so replaying the log after it brings a follower level with the leader
+     * whatever changed during the scan.
+     *
+     * @return All tasks as {@code created} entries
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<TaskLogPage> snapshot() {
+        String position = log.eventId(log.lastSequence());
+        List<TaskLogEntry> entries = new ArrayList<>(service.getTaskCount());
+        Iterator<Task> tasks = service.iterateTasks();
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            entries.add(new TaskLogEntry("created", task.getId(), task.getName(), task.getVersion()));
+        }
+        return ResponseEntity.ok(new TaskLogPage(position, position, false, entries));
+    }
+
+    private List<TaskEvent> awaitEvents(long after, int limit, long waitMillis) {
+        List<TaskEvent> events = log.readAfter(after, limit);
+        if (events == null || !events.isEmpty() || waitMillis == 0) {
+            return events;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        Thread current = Thread.currentThread();
+        waiting.add(current);
+        try {
+            // Checked again after registering, so a publish in between is not missed
+            while ((events = log.readAfter(after, limit)) != null && events.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || current.isInterrupted()) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return events;
+        } finally {
+            waiting.remove(current);
+        }
+    }
+}
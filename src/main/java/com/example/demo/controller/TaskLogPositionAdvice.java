@@ -0,0 +1,46 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.TaskEventLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Stamps the response of every TaskController write with {@value TaskReplica#LOG_POSITION},
+ * the leader's log position once the write is in. A client that sends it back as
+ * {@value TaskReplica#MIN_POSITION} is guaranteed to read its own write from any follower.
+ *
+ * The position is the latest at the time the response is written, so it may also cover later
+ * writes by others; that only makes a follower wait slightly longer.
+ */
+@ControllerAdvice(assignableTypes = TaskController.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskLogPositionAdvice implements ResponseBodyAdvice<Object> {
+
+    private final TaskEventLog log;
+
+    public TaskLogPositionAdvice(TaskEventLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!HttpMethod.GET.equals(request.getMethod()) && !HttpMethod.HEAD.equals(request.getMethod())) {
+            response.getHeaders().set(TaskReplica.LOG_POSITION, log.eventId(log.lastSequence()));
+        }
+        return body;
+    }
+}
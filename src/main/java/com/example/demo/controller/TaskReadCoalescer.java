@@ -0,0 +1,129 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Task;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single flight for identical concurrent reads: the first request for a resource computes and
+ * encodes the response, and requests for the same resource arriving meanwhile, or within
+ * {@code window} after it finished, wait for it and write the same bytes.
+ *
+ * A request only joins a computation that started at the store modification count the request
+ * itself sees, so it never gets data older than a write that completed before it arrived; any
+ * write simply starts a new flight. Entries are dropped {@code window} after they complete, or
+ * right away with a zero window, and a failed computation is not shared with later requests.
+ */
+public class TaskReadCoalescer {
+
+    /**
+     * One encoded response: the task it shows, for single-task reads (null if none was found),
+     * and its JSON. The array is shared by every request served from it and must not be modified.
+     */
+    public static final class Encoded {
+        private final Task task;
+        private final byte[] json;
+
+        public Encoded(Task task, byte[] json) {
+            this.task = task;
+            this.json = json;
+        }
+
+        public Task getTask() { return task; }
+        public byte[] getJson() { return json; }
+    }
+
+    private static final class Key {
+        final String resource;
+        final long modifications;
+
+        Key(String resource, long modifications) {
+            this.resource = resource;
+            this.modifications = modifications;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.modifications == modifications && key.resource.equals(resource);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resource, modifications);
+        }
+    }
+
+    private final ConcurrentMap<Key, CompletableFuture<Encoded>> flights;
+    private Counter computed;
+    private Counter shared;
+
+    /**
+     * @param window how long a finished response keeps serving identical requests, or zero for
+     *               only those that arrive while it is being computed
+     * @param maximumSize most responses held at once
+     */
+    public TaskReadCoalescer(Duration window, long maximumSize) {
+        // Caffeine only starts the expiry clock of an async entry once its future completes
+        this.flights = Caffeine.newBuilder()
+            .expireAfterWrite(window)
+            .maximumSize(maximumSize)
+            .<Key, Encoded>buildAsync()
+            .asMap();
+        CompositeMeterRegistry noop = new CompositeMeterRegistry();
+        this.computed = counter(noop, "computed");
+        this.shared = counter(noop, "shared");
+    }
+
+    /**
+     * Registers {@code tasks.reads.coalesced}, counting requests that computed their response
+     * ({@code outcome=computed}) and those collapsed onto another's ({@code outcome=shared}).
+     */
+    public void bindTo(MeterRegistry registry) {
+        computed = counter(registry, "computed");
+        shared = counter(registry, "shared");
+    }
+
+    /**
+     * The response for {@code resource} as of {@code modifications}, from a computation already
+     * running or recently finished for the same pair, or from {@code compute} on this thread.
+     */
+    public Encoded get(String resource, long modifications, Supplier<Encoded> compute) {
+        Key key = new Key(resource, modifications);
+        CompletableFuture<Encoded> mine = new CompletableFuture<>();
+        CompletableFuture<Encoded> running = flights.putIfAbsent(key, mine);
+        if (running != null) {
+            shared.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        computed.increment();
+        try {
+            Encoded encoded = compute.get();
+            mine.complete(encoded);
+            return encoded;
+        } catch (RuntimeException | Error e) {
+            // Waiting requests see the same failure; Caffeine drops the failed entry
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("tasks.reads.coalesced")
+            .description("Reads by whether they computed their response or shared one in flight")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.TaskLogEntry;
+import com.example.demo.dto.TaskLogPage;
+import com.example.demo.model.Task;
+import com.example.demo.service.TaskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only copy of the leader's tasks on a follower, kept current by one thread tailing the
+ * leader's mutation log ({@code GET /tasks/log}) and applying each entry to the local TaskService.
+ *
+ * The replica starts from the leader's snapshot and after that only reads the log, long-polling
+ * so an idle leader costs one request per {@code pollWait}. If it falls further behind than the
+ * leader's log reaches, or the leader restarts, it reloads the snapshot: every task takes the
+ * snapshot's name and version, whatever version the replica held, and tasks it no longer lists
+ * are dropped, so a leader that restarted empty and reused IDs is mirrored exactly. Log entries
+ * apply by version, so replaying ones already in the snapshot is harmless.
+ *
+ * Two measures of freshness back the read options of ReplicaReadFilter: the leader log position
+ * applied so far, for read-your-writes, and the staleness, the time since the replica last held
+ * everything the leader had. Staleness is counted from when that page arrived, so it is low by
+ * up to one network hop.
+ */
+public class TaskReplica implements Closeable {
+
+    /**
+     * Response header with a log position: of the write on the leader, of the data on a follower.
+     */
+    public static final String LOG_POSITION = "X-Task-Log-Position";
+    /**
+     * Request header with the log position a follower must have applied before it answers.
+     */
+    public static final String MIN_POSITION = "X-Task-Min-Position";
+    /**
+     * Request header with the staleness in milliseconds the client accepts from a follower.
+     */
+    public static final String MAX_STALENESS = "X-Task-Max-Staleness";
+
+    private static final Logger log = LoggerFactory.getLogger(TaskReplica.class);
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final TaskService service;
+    private final String leaderUrl;
+    private final RestClient rest;
+    private final int batchSize;
+    private final long pollWaitMillis;
+    private final long retryDelayMillis;
+    private final Object progress = new Object();
+    private final Thread tailer;
+    private volatile boolean running = true;
+    // Written by the tailer under progress, read anywhere
+    private volatile String position;
+    private volatile String epoch;
+    private volatile long appliedSequence;
+    private volatile long headSequence;
+    private volatile long caughtUpAtNanos = NEVER;
+    private Counter resets;
+    private Counter redirects;
+
+    /**
+     * @param leaderUrl base URL of the leader, including any context path
+     * @param rest client for the leader, with a read timeout longer than {@code pollWait}
+     * @param batchSize most entries fetched per request
+     * @param pollWait how long the leader holds a request open when there is nothing new
+     * @param retryDelay pause before retrying after the leader could not be reached
+     */
+    public TaskReplica(TaskService service, String leaderUrl, RestClient rest, int batchSize,
+                       Duration pollWait, Duration retryDelay) {
+        this.service = service;
+        this.leaderUrl = leaderUrl.endsWith("/") ? leaderUrl.substring(0, leaderUrl.length() - 1) : leaderUrl;
+        this.rest = rest;
+        this.batchSize = batchSize;
+        this.pollWaitMillis = pollWait.toMillis();
+        this.retryDelayMillis = retryDelay.toMillis();
+        CompositeMeterRegistry noop = new CompositeMeterRegistry();
+        this.resets = Counter.builder("tasks.replication.resets").register(noop);
+        this.redirects = Counter.builder("tasks.replication.redirects").register(noop);
+        this.tailer = new Thread(this::tail, "task-replica");
+        tailer.setDaemon(true);
+    }
+
+    /**
+     * Registers how far behind the leader the replica is, in mutations and in time, and how
+     * often it had to reload the snapshot or send a reader to the leader.
+     */
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.replication.lag", this, replica -> replica.headSequence - replica.appliedSequence)
+            .description("Leader mutations not yet applied, as of the last log read")
+            .register(registry);
+        Gauge.builder("tasks.replication.staleness", this,
+                replica -> replica.caughtUpAtNanos == NEVER ? Double.NaN : replica.staleness().toNanos() / 1e9)
+            .description("Seconds since the replica last held everything the leader had")
+            .baseUnit("seconds")
+            .register(registry);
+        resets = Counter.builder("tasks.replication.resets")
+            .description("Snapshot reloads after falling out of the leader's log")
+            .register(registry);
+        redirects = Counter.builder("tasks.replication.redirects")
+            .description("Requests sent to the leader because the replica could not serve them")
+            .register(registry);
+    }
+
+    public void start() {
+        tailer.start();
+    }
+
+    public String leaderUrl() {
+        return leaderUrl;
+    }
+
+    /**
+     * Leader log position applied so far, or null before the first snapshot is in.
+     */
+    public String position() {
+        return position;
+    }
+
+    /**
+     * Leader sequence applied so far; positions from an earlier leader epoch are not comparable.
+     */
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Time since the replica was last level with the leader; effectively infinite before it ever was.
+     */
+    public Duration staleness() {
+        long caughtUpAt = caughtUpAtNanos;
+        if (caughtUpAt == NEVER) {
+            return Duration.ofSeconds(Long.MAX_VALUE);
+        }
+        return Duration.ofNanos(Math.max(0, System.nanoTime() - caughtUpAt));
+    }
+
+    /**
+     * Waits until the replica has applied the leader log up to {@code minPosition}.
+     *
+     * @return whether it got there within {@code timeout}; false for a position it cannot
+     *         compare, such as one from an earlier leader epoch or a malformed one
+     */
+    public boolean awaitPosition(String minPosition, Duration timeout) throws InterruptedException {
+        long wanted = sequenceOf(minPosition);
+        String wantedEpoch = epochOf(minPosition);
+        if (wanted < 0) {
+            return false;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progress) {
+            while (!wantedEpoch.equals(epoch) || appliedSequence < wanted) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+            }
+            return true;
+        }
+    }
+
+    void redirected() {
+        redirects.increment();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        tailer.interrupt();
+    }
+
+    private void tail() {
+        while (running) {
+            try {
+                if (position == null) {
+                    loadSnapshot();
+                }
+                TaskLogPage page = rest.get()
+                    .uri(leaderUrl + "/tasks/log?after={after}&limit={limit}&wait={wait}",
+                        position, batchSize, pollWaitMillis)
+                    .retrieve()
+                    .body(TaskLogPage.class);
+                long receivedAt = System.nanoTime();
+                if (page.isReset()) {
+                    resets.increment();
+                    log.info("Replica fell out of the leader's log at {}, reloading the snapshot", position);
+                    position = null;
+                    continue;
+                }
+                page.getEntries().forEach(this::apply);
+                advance(page, receivedAt);
+            } catch (RestClientException e) {
+                if (running) {
+                    log.warn("Could not read the leader's log at {}: {}", leaderUrl, e.getMessage());
+                    sleepBeforeRetry();
+                }
+            } catch (RuntimeException e) {
+                log.error("Replication failed, reloading the snapshot", e);
+                position = null;
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    private void loadSnapshot() {
+        TaskLogPage snapshot = rest.get()
+            .uri(leaderUrl + "/tasks/log/snapshot")
+            .retrieve()
+            .body(TaskLogPage.class);
+        long receivedAt = System.nanoTime();
+        Set<Integer> listed = new HashSet<>(snapshot.getEntries().size() * 2);
+        for (TaskLogEntry entry : snapshot.getEntries()) {
+            listed.add(entry.getId());
+            service.restoreReplicated(entry.getId(), entry.getName(), entry.getVersion());
+        }
+        // Tasks deleted on the leader while this replica was not following
+        Iterator<Task> local = service.iterateTasks();
+        while (local.hasNext()) {
+            int id = local.next().getId();
+            if (!listed.contains(id)) {
+                service.applyReplicatedDelete(id);
+            }
+        }
+        advance(snapshot, receivedAt);
+    }
+
+    private void apply(TaskLogEntry entry) {
+        if ("deleted".equals(entry.getType())) {
+            service.applyReplicatedDelete(entry.getId());
+        } else {
+            service.applyReplicated(entry.getId(), entry.getName(), entry.getVersion());
+        }
+    }
+
+    private void advance(TaskLogPage page, long receivedAt) {
+        synchronized (progress) {
+            position = page.getPosition();
+            epoch = epochOf(position);
+            service.followLeaderEpoch(epoch);
+            appliedSequence = sequenceOf(position);
+            headSequence = sequenceOf(page.getHead());
+            if (position.equals(page.getHead())) {
+                caughtUpAtNanos = receivedAt;
+            }
+            progress.notifyAll();
+        }
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(retryDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Positions are TaskEventLog event IDs, {@code <epoch>-<sequence>}.
+     */
+    private static long sequenceOf(String position) {
+        int dash = position == null ? -1 : position.lastIndexOf('-');
+        if (dash < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(position.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String epochOf(String position) {
+        int dash = position == null ? -1 : position.lastIndexOf('-');
+        return dash < 0 ? "" : position.substring(0, dash);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Task;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item in a batch request. {@code status} uses HTTP status codes.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    private int index;
+    private int status;
+    private Task task;
+    private String error;
+
+    public BatchItemResult() {}
+    public BatchItemResult(int index, int status, Task task, String error) {
+        this.index = index; this.status = status; this.task = task; this.error = error;
+    }
+
+    public static BatchItemResult success(int index, int status, Task task) {
+        return new BatchItemResult(index, status, task, null);
+    }
+    public static BatchItemResult failure(int index, int status, String error) {
+        return new BatchItemResult(index, status, null, error);
+    }
+
+    // getters/setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    public Task getTask() { return task; }
+    public void setTask(Task task) { this.task = task; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Task;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Locale;
+
+/**
+ * One task mutation on the change stream. The body is the task as it was after the change, or
+ * only its ID for a deletion; the type and sequence travel as the SSE event name and ID.
+ *
+ * Writers publish after the store applied their change, without holding a lock, so two
+ * changes of one task can reach the log in the wrong order. Each event carries the task's
+ * revision, the version the change wrote or one past the version a deletion removed, and an
+ * event that reached the log after a later revision of its task is marked superseded and
+ * skipped by readers, so a task's last delivered event always reflects its current state.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final long sequence;
+    private final Type type;
+    private final int id;
+    private final String name;
+    private final Integer version;
+    private final int revision;
+    private volatile boolean superseded;
+
+    public TaskEvent(long sequence, Type type, Task task) {
+        this(sequence, type, task.getId(), task.getName(), task.getVersion(), task.getVersion());
+    }
+
+    /**
+     * @param removed the task as the deletion found it
+     */
+    public TaskEvent(long sequence, Task removed) {
+        this(sequence, Type.DELETED, removed.getId(), null, null, removed.getVersion() + 1);
+    }
+
+    private TaskEvent(long sequence, Type type, int id, String name, Integer version, int revision) {
+        this.sequence = sequence;
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.version = version;
+        this.revision = revision;
+    }
+
+    @JsonIgnore
+    public long getSequence() { return sequence; }
+    @JsonIgnore
+    public Type getType() { return type; }
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public Integer getVersion() { return version; }
+    @JsonIgnore
+    public int getRevision() { return revision; }
+
+    /**
+     * Whether a later revision of the task reached the log first; readers skip such events.
+     */
+    @JsonIgnore
+    public boolean isSuperseded() { return superseded; }
+
+    public void supersede() { superseded = true; }
+
+    /**
+     * SSE event name: {@code created}, {@code updated} or {@code deleted}.
+     */
+    @JsonIgnore
+    public String getEventName() {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+}
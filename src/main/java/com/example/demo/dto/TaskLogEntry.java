@@ -0,0 +1,34 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One mutation in the replication log: {@code type} is {@code created}, {@code updated} or
+ * {@code deleted}; deletions carry only the ID.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskLogEntry {
+    private String type;
+    private int id;
+    private String name;
+    private Integer version;
+
+    public TaskLogEntry() {}
+    public TaskLogEntry(String type, int id, String name, Integer version) {
+        this.type = type; this.id = id; this.name = name; this.version = version;
+    }
+
+    public static TaskLogEntry of(TaskEvent event) {
+        return new TaskLogEntry(event.getEventName(), event.getId(), event.getName(), event.getVersion());
+    }
+
+    // getters/setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * A run of the leader's mutation log for a follower.
+ *
+ * {@code position} is the ID of the last entry included, to ask for the next run with, and
+ * {@code head} the ID of the leader's latest mutation when the page was cut; a page whose
+ * position is the head brings the follower fully up to date. {@code reset} means the position
+ * asked for is no longer in the log and the follower must reload the snapshot.
+ */
+public class TaskLogPage {
+    private String position;
+    private String head;
+    private boolean reset;
+    private List<TaskLogEntry> entries;
+
+    public TaskLogPage() {}
+    public TaskLogPage(String position, String head, boolean reset, List<TaskLogEntry> entries) {
+        this.position = position; this.head = head; this.reset = reset; this.entries = entries;
+    }
+
+    // getters/setters
+    public String getPosition() { return position; }
+    public void setPosition(String position) { this.position = position; }
+    public String getHead() { return head; }
+    public void setHead(String head) { this.head = head; }
+    public boolean isReset() { return reset; }
+    public void setReset(boolean reset) { this.reset = reset; }
+    public List<TaskLogEntry> getEntries() { return entries; }
+    public void setEntries(List<TaskLogEntry> entries) { this.entries = entries; }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Task;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results and the number of tasks matching overall.
+ */
+public class TaskSearchPage {
+    private final List<Task> tasks;
+    private final int total;
+
+    public TaskSearchPage(List<Task> tasks, int total) {
+        this.tasks = tasks;
+        this.total = total;
+    }
+
+    public List<Task> getTasks() { return tasks; }
+    public int getTotal() { return total; }
+}
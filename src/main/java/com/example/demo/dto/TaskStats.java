@@ -0,0 +1,68 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Live aggregates of one node's tasks, as kept by TaskStatistics. Rates are per second.
+ */
+public class TaskStats {
+    private final long total;
+    private final Activity created;
+    private final Activity updated;
+    private final Activity deleted;
+    private final List<NameLengthBucket> nameLengths;
+
+    public TaskStats(long total, Activity created, Activity updated, Activity deleted,
+                     List<NameLengthBucket> nameLengths) {
+        this.total = total;
+        this.created = created;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.nameLengths = nameLengths;
+    }
+
+    public long getTotal() { return total; }
+    public Activity getCreated() { return created; }
+    public Activity getUpdated() { return updated; }
+    public Activity getDeleted() { return deleted; }
+    public List<NameLengthBucket> getNameLengths() { return nameLengths; }
+
+    /**
+     * Count of one kind of mutation since startup and its moving average rates.
+     */
+    public static class Activity {
+        private final long count;
+        private final double oneMinuteRate;
+        private final double fiveMinuteRate;
+        private final double fifteenMinuteRate;
+
+        public Activity(long count, double oneMinuteRate, double fiveMinuteRate, double fifteenMinuteRate) {
+            this.count = count;
+            this.oneMinuteRate = oneMinuteRate;
+            this.fiveMinuteRate = fiveMinuteRate;
+            this.fifteenMinuteRate = fifteenMinuteRate;
+        }
+
+        public long getCount() { return count; }
+        public double getOneMinuteRate() { return oneMinuteRate; }
+        public double getFiveMinuteRate() { return fiveMinuteRate; }
+        public double getFifteenMinuteRate() { return fifteenMinuteRate; }
+    }
+
+    /**
+     * Tasks whose names are longer than the previous bucket's bound and at most {@code maxLength}
+     * characters; the last bucket has no bound and a null {@code maxLength}.
+     */
+    public static class NameLengthBucket {
+        private final Integer maxLength;
+        private final long count;
+
+        public NameLengthBucket(Integer maxLength, long count) {
+            this.maxLength = maxLength;
+            this.count = count;
+        }
+
+        public Integer getMaxLength() { return maxLength; }
+        public long getCount() { return count; }
+    }
+}
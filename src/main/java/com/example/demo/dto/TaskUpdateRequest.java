@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+public class TaskUpdateRequest {
+    private int id;
+    private String name;
+
+    public TaskUpdateRequest() {}
+    public TaskUpdateRequest(int id, String name) {
+        this.id = id; this.name = name;
+    }
+    // getters/setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
@@ -1,5 +1,9 @@
 package com.example.demo.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,26 +18,70 @@ import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+
+    private final Counter illegalArgument;
+    private final Counter missingParameter;
+    private final Counter validation;
+    private final Counter versionConflict;
+    private final Counter shardUnavailable;
+    private final Counter unhandled;
+
+    /**
+     * Web slices without actuator have no registry; the counters then become no-ops.
+     */
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistries) {
+        MeterRegistry meterRegistry = meterRegistries.getIfAvailable(CompositeMeterRegistry::new);
+        this.illegalArgument = errorCounter(meterRegistry, "illegal_argument");
+        this.missingParameter = errorCounter(meterRegistry, "missing_parameter");
+        this.validation = errorCounter(meterRegistry, "validation");
+        this.versionConflict = errorCounter(meterRegistry, "version_conflict");
+        this.shardUnavailable = errorCounter(meterRegistry, "shard_unavailable");
+        this.unhandled = errorCounter(meterRegistry, "unhandled");
+    }
+
+    private static Counter errorCounter(MeterRegistry registry, String handler) {
+        return Counter.builder("tasks.errors")
+            .description("Exceptions mapped to error responses, by handler")
+            .tag("handler", handler)
+            .register(registry);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<?> handleIllegalArg(IllegalArgumentException ex) {
+        illegalArgument.increment();
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
     }
 
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<?> handleMissingParam(MissingServletRequestParameterException ex) {
+        missingParameter.increment();
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("error", "Missing required parameter: " + ex.getParameterName()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     protected ResponseEntity<Object> handleValidation(MethodArgumentNotValidException ex, WebRequest request) {
+        validation.increment();
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(e -> errors.put(e.getField(), e.getDefaultMessage()));
         return new ResponseEntity<>(errors, new HttpHeaders(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<?> handleVersionConflict(TaskVersionConflictException ex) {
+        versionConflict.increment();
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ShardUnavailableException.class)
+    public ResponseEntity<?> handleShardUnavailable(ShardUnavailableException ex) {
+        shardUnavailable.increment();
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleAll(Exception ex) {
+        unhandled.increment();
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "internal error"));
     }
 }
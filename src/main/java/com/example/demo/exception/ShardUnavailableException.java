@@ -0,0 +1,11 @@
+package com.example.demo.exception;
+
+/**
+ * Another node of the cluster could not be reached, so a cluster-wide read cannot be answered.
+ */
+public class ShardUnavailableException extends RuntimeException {
+
+    public ShardUnavailableException(int nodeId, Throwable cause) {
+        super(String.format("Node %d is unavailable", nodeId), cause);
+    }
+}
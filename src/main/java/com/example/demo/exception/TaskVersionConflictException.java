@@ -0,0 +1,11 @@
+package com.example.demo.exception;
+
+/**
+ * A conditional update named a task version that is no longer current.
+ */
+public class TaskVersionConflictException extends RuntimeException {
+
+    public TaskVersionConflictException(int id) {
+        super(String.format("Task with ID %d has been modified", id));
+    }
+}
@@ -1,35 +1,59 @@
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.NotBlank;
 
+/**
+ * Immutable task value. A rename produces a new instance with the next version via
+ * {@link #withName}, so a Task handed to a reader never changes underneath it.
+ *
+ * Fields are not final only because JPA and Jackson populate them reflectively.
+ */
 @Entity
 public class Task {
+    @Id
     private int id;
 
     @NotBlank(message = "Task name must not be blank")
     private String name;
 
-    public Task() {}
+    private int version = 1;
+
+    protected Task() {}
 
     public Task(int id, String name) {
         this.id = id;
         this.name = name;
     }
 
-    @Id
+    public Task(int id, String name, int version) {
+        this.id = id;
+        this.name = name;
+        this.version = version;
+    }
+
     public int getId() {
         return id;
     }
-    public void setId(int id) {
-        this.id = id;
-    }
 
     public String getName() {
         return name;
     }
-    public void setName(String name) {
-        this.name = name;
+
+    /**
+     * Starts at 1 and goes up by one with every rename. Published as the ETag, not in the body.
+     */
+    @JsonIgnore
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * This task renamed, at the next version.
+     */
+    public Task withName(String newName) {
+        return new Task(id, newName, version + 1);
     }
 }
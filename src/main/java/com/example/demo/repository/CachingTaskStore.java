@@ -0,0 +1,150 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-through cache of single-task lookups in front of a slower store.
+ *
+ * Caffeine bounds the cache by entry count and evicts with W-TinyLFU, which keeps the small
+ * set of frequently read (recent) tasks resident while one-off reads of old tasks pass
+ * through. Concurrent misses on one ID are collapsed into a single load. Writes go to the
+ * underlying store first and invalidate afterwards; Caffeine makes an invalidation wait for
+ * a load in progress on the same ID, so a load racing a write cannot leave the old value
+ * cached. Missing IDs are not cached. Scans, counts and ID lookups are not cached.
+ */
+public class CachingTaskStore implements TaskStore {
+
+    private final TaskStore delegate;
+    private final Cache<Integer, Task> cache;
+
+    /**
+     * @param maximumSize tasks kept in the cache
+     * @param expireAfterWrite bound on how long an entry is served, even if it stays hot
+     */
+    public CachingTaskStore(TaskStore delegate, long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Publishes hits, misses, evictions and size under {@code cache.*} with {@code cache=tasks}.
+     */
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "tasks");
+    }
+
+    @Override
+    public Task get(int id) {
+        return cache.get(id, key -> delegate.get(key));
+    }
+
+    @Override
+    public void put(Task task) {
+        try {
+            delegate.put(task);
+        } finally {
+            // Also on failure: the caller may have renamed the cached instance before writing it back
+            cache.invalidate(task.getId());
+        }
+    }
+
+    @Override
+    public void putAll(List<Task> tasks) {
+        try {
+            delegate.putAll(tasks);
+        } finally {
+            List<Integer> ids = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                ids.add(task.getId());
+            }
+            cache.invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public boolean replace(int expectedVersion, Task updated) {
+        try {
+            return delegate.replace(expectedVersion, updated);
+        } finally {
+            cache.invalidate(updated.getId());
+        }
+    }
+
+    @Override
+    public Task remove(int id) {
+        try {
+            return delegate.remove(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public List<Task> removeAll(Collection<Integer> ids) {
+        try {
+            return delegate.removeAll(ids);
+        } finally {
+            cache.invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Map<Integer, Long> countByNameLength() {
+        return delegate.countByNameLength();
+    }
+
+    @Override
+    public ModificationStamp modifications() {
+        return delegate.modifications();
+    }
+
+    @Override
+    public boolean isShared() {
+        return delegate.isShared();
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return delegate.isBlocking();
+    }
+
+    @Override
+    public long approximateMemoryBytes() {
+        return delegate.approximateMemoryBytes();
+    }
+
+    @Override
+    public int lastId() {
+        return delegate.lastId();
+    }
+
+    @Override
+    public Iterator<Task> ascending(int afterId) {
+        return delegate.ascending(afterId);
+    }
+
+    @Override
+    public Iterator<Task> descending(int beforeId) {
+        return delegate.descending(beforeId);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Default store: a {@link ConcurrentHashMap} for O(1) point lookups plus an ordered
+ * skip-list ID index so range scans, "latest N" and cursor pages cost O(log n + k).
+ */
+public class ConcurrentTaskStore implements TaskStore {
+
+    // Map node, boxed key, Task and skip-list node per task, as measured by TaskStoreFootprint
+    private static final long BYTES_PER_TASK = 116;
+    private static final long BYTES_PER_NAME = 56;
+
+    private final Map<Integer, Task> tasks = new ConcurrentHashMap<>();
+    private final NavigableSet<Integer> idIndex = new ConcurrentSkipListSet<>();
+    private final ModificationStamp modifications = new ModificationStamp();
+
+    @Override
+    public Task get(int id) {
+        return tasks.get(id);
+    }
+
+    @Override
+    public void put(Task task) {
+        Integer id = task.getId();
+        tasks.put(id, task);
+        idIndex.add(id);
+        modifications.touch();
+    }
+
+    /**
+     * Lock-free: the map only swaps the entry if it still holds the instance the version was read from.
+     */
+    @Override
+    public boolean replace(int expectedVersion, Task updated) {
+        Task current = tasks.get(updated.getId());
+        if (current == null || current.getVersion() != expectedVersion
+                || !tasks.replace(updated.getId(), current, updated)) {
+            return false;
+        }
+        modifications.touch();
+        return true;
+    }
+
+    @Override
+    public Task remove(int id) {
+        Task removed = tasks.remove(id);
+        if (removed != null) {
+            idIndex.remove(id);
+            modifications.touch();
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public ModificationStamp modifications() {
+        return modifications;
+    }
+
+    @Override
+    public long approximateMemoryBytes() {
+        return tasks.size() * (BYTES_PER_TASK + BYTES_PER_NAME);
+    }
+
+    @Override
+    public int lastId() {
+        Iterator<Integer> ids = idIndex.descendingIterator();
+        return ids.hasNext() ? ids.next() : 0;
+    }
+
+    @Override
+    public Iterator<Task> ascending(int afterId) {
+        return resolve(idIndex.tailSet(afterId, false).iterator());
+    }
+
+    @Override
+    public Iterator<Task> descending(int beforeId) {
+        return resolve(idIndex.headSet(beforeId, false).descendingIterator());
+    }
+
+    private Iterator<Task> resolve(Iterator<Integer> ids) {
+        return new Iterator<>() {
+            private Task next = advance();
+
+            private Task advance() {
+                while (ids.hasNext()) {
+                    // An ID can briefly outlive its task while a delete is in flight
+                    Task task = tasks.get(ids.next());
+                    if (task != null) {
+                        return task;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Task next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Task current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+}
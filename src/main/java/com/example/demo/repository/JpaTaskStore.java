@@ -0,0 +1,235 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+import jakarta.persistence.EntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Store backed by the database through TaskRepository.
+ *
+ * Writes avoid load-then-save round trips: a rename is one JPQL update, a new task (version 1)
+ * is one insert, groups of new tasks are persisted and flushed in groups of the Hibernate JDBC batch size so each group goes out
+ * as one batched insert, and bulk deletes are a single JPQL {@code delete ... in} after one
+ * locking select that reports the versions deleted. IDs come from a pooled
+ * SequenceIdAllocator, so inserts never wait on the database for a key.
+ */
+public class JpaTaskStore implements TaskStore {
+
+    private static final int SCAN_PAGE_SIZE = 500;
+    private static final int MAX_IN_LIST = 1000;
+
+    private final TaskRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactions;
+    private final int batchSize;
+    private final ModificationStamp modifications = new ModificationStamp();
+
+    /**
+     * @param batchSize tasks persisted per flush; match {@code hibernate.jdbc.batch_size}
+     */
+    public JpaTaskStore(TaskRepository repository, EntityManager entityManager,
+                        PlatformTransactionManager transactionManager, int batchSize) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Task get(int id) {
+        return repository.findById(id).orElse(null);
+    }
+
+    /**
+     * Inserts a task at version 1 without first trying an update, since it is almost always new.
+     * Only if the ID turns out to be taken, as when a replica restores a restarted leader's
+     * snapshot, is the row updated instead.
+     */
+    @Override
+    public void put(Task task) {
+        if (task.getVersion() == 1) {
+            try {
+                transactions.executeWithoutResult(status ->
+                    entityManager.persist(new Task(task.getId(), task.getName(), task.getVersion())));
+                modifications.touch();
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // The ID exists: replace the row below
+            }
+        }
+        transactions.executeWithoutResult(status -> {
+            if (repository.rename(task.getId(), task.getName(), task.getVersion()) == 0) {
+                entityManager.persist(new Task(task.getId(), task.getName(), task.getVersion()));
+            }
+        });
+        modifications.touch();
+    }
+
+    @Override
+    public void putAll(List<Task> tasks) {
+        transactions.executeWithoutResult(status -> {
+            for (int from = 0; from < tasks.size(); from += batchSize) {
+                List<Task> group = tasks.subList(from, Math.min(from + batchSize, tasks.size()));
+                Set<Integer> existing = new HashSet<>(repository.findExistingIds(idsOf(group)));
+                for (Task task : group) {
+                    if (existing.contains(task.getId())) {
+                        repository.rename(task.getId(), task.getName(), task.getVersion());
+                    } else {
+                        entityManager.persist(new Task(task.getId(), task.getName(), task.getVersion()));
+                    }
+                }
+                // One batched insert per group, and no persistence context growing with the batch
+                entityManager.flush();
+                entityManager.clear();
+            }
+        });
+        modifications.touch();
+    }
+
+    @Override
+    public boolean replace(int expectedVersion, Task updated) {
+        boolean replaced = repository.renameIfVersion(updated.getId(), updated.getName(),
+            updated.getVersion(), expectedVersion) > 0;
+        if (replaced) {
+            modifications.touch();
+        }
+        return replaced;
+    }
+
+    @Override
+    public Task remove(int id) {
+        List<Task> removed = removeAll(List.of(id));
+        return removed.isEmpty() ? null : removed.get(0);
+    }
+
+    @Override
+    public List<Task> removeAll(Collection<Integer> ids) {
+        List<Task> removed = new ArrayList<>();
+        List<Integer> all = new ArrayList<>(ids);
+        transactions.executeWithoutResult(status -> {
+            for (int from = 0; from < all.size(); from += MAX_IN_LIST) {
+                List<Task> existing = repository.lockAllByIds(all.subList(from, Math.min(from + MAX_IN_LIST, all.size())));
+                if (!existing.isEmpty()) {
+                    repository.deleteAllByIds(idsOf(existing));
+                    removed.addAll(existing);
+                }
+            }
+        });
+        if (!removed.isEmpty()) {
+            modifications.touch();
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return (int) repository.count();
+    }
+
+    @Override
+    public Map<Integer, Long> countByNameLength() {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Object[] row : repository.countByNameLength()) {
+            counts.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Counts writes made through this store only, not changes other processes make to the table.
+     */
+    @Override
+    public ModificationStamp modifications() {
+        return modifications;
+    }
+
+    @Override
+    public int lastId() {
+        Integer maxId = repository.findMaxId();
+        return maxId == null ? 0 : maxId;
+    }
+
+    @Override
+    public Iterator<Task> ascending(int afterId) {
+        return new PageIterator(afterId,
+            cursor -> repository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(SCAN_PAGE_SIZE)));
+    }
+
+    @Override
+    public Iterator<Task> descending(int beforeId) {
+        return new PageIterator(beforeId,
+            cursor -> repository.findByIdLessThanOrderByIdDesc(cursor, Limit.of(SCAN_PAGE_SIZE)));
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    private static List<Integer> idsOf(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Keyset scan that loads {@value #SCAN_PAGE_SIZE} tasks per query as the caller advances.
+     */
+    private static class PageIterator implements Iterator<Task> {
+        private final IntFunction<List<Task>> nextPage;
+        private Iterator<Task> page;
+        private int cursor;
+        private boolean lastPage;
+
+        PageIterator(int cursor, IntFunction<List<Task>> nextPage) {
+            this.cursor = cursor;
+            this.nextPage = nextPage;
+            this.page = fetch();
+        }
+
+        private Iterator<Task> fetch() {
+            List<Task> tasks = nextPage.apply(cursor);
+            lastPage = tasks.size() < SCAN_PAGE_SIZE;
+            return tasks.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!page.hasNext() && !lastPage) {
+                page = fetch();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Task task = page.next();
+            cursor = task.getId();
+            return task;
+        }
+    }
+}
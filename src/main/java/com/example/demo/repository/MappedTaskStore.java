@@ -0,0 +1,378 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Durable store that keeps task records in a memory-mapped, append-only log.
+ *
+ * The log is mapped in fixed-size segments via {@link FileChannel#map}. Each record is
+ * {@code [type:1][id:4][version:4][nameLength:2][name:UTF-8]}; the type byte is written last so a
+ * record interrupted mid-write reads as the end of the log. Updates append a new PUT
+ * record and deletes append a DELETE record, so the log is never rewritten in place.
+ *
+ * Task names live off-heap in the mapping. The only heap structure is the index, a
+ * {@code long[]} of log positions addressed by ID (8 bytes per ID), which suits the
+ * dense IDs TaskService hands out. On startup the index is rebuilt with one sequential
+ * pass over the mapping, so no tasks need to be re-ingested.
+ */
+public class MappedTaskStore implements TaskStore, Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_SIZE = 1 + 4 + 4 + 2;
+    private static final int MAGIC = 0x544C4732; // "TLG2", records carry the task version
+    private static final int FILE_HEADER_SIZE = 8; // magic + segment size
+
+    private final FileChannel channel;
+    private final int segmentSize;
+    private final boolean syncWrites;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final StampedLock lock = new StampedLock();
+    private final ModificationStamp modifications = new ModificationStamp();
+
+    private long[] positions = new long[1024];
+    private long writePosition;
+    private int size;
+    private int maxId;
+
+    /**
+     * @param segmentSize mapping size for a new log; an existing log keeps the size it was created with
+     * @param syncWrites force every record to disk before returning instead of only on close
+     */
+    public MappedTaskStore(Path file, int segmentSize, boolean syncWrites) {
+        this.syncWrites = syncWrites;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.segmentSize = channel.size() == 0 ? segmentSize : readHeader();
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open task log " + file, e);
+        }
+    }
+
+    @Override
+    public Task get(int id) {
+        long stamp = lock.readLock();
+        try {
+            long position = positionOf(id);
+            return position == 0 ? null : readTask(position);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void put(Task task) {
+        byte[] name = task.getName().getBytes(StandardCharsets.UTF_8);
+        long stamp = lock.writeLock();
+        try {
+            appendPut(task.getId(), task.getVersion(), name);
+            modifications.touch();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void putAll(List<Task> tasks) {
+        byte[][] names = new byte[tasks.size()][];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = tasks.get(i).getName().getBytes(StandardCharsets.UTF_8);
+        }
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < names.length; i++) {
+                appendPut(tasks.get(i).getId(), tasks.get(i).getVersion(), names[i]);
+            }
+            modifications.touch();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean replace(int expectedVersion, Task updated) {
+        byte[] name = updated.getName().getBytes(StandardCharsets.UTF_8);
+        long stamp = lock.writeLock();
+        try {
+            long position = positionOf(updated.getId());
+            if (position == 0 || versionAt(position) != expectedVersion) {
+                return false;
+            }
+            appendPut(updated.getId(), updated.getVersion(), name);
+            modifications.touch();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task remove(int id) {
+        long stamp = lock.writeLock();
+        try {
+            long position = positionOf(id);
+            if (position == 0) {
+                return null;
+            }
+            Task removed = readTask(position);
+            append(DELETE, id, 0, new byte[0]);
+            positions[id] = 0;
+            size--;
+            modifications.touch();
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public ModificationStamp modifications() {
+        return modifications;
+    }
+
+    /**
+     * Synchronous writes wait for the disk; otherwise writes only touch the page cache.
+     */
+    @Override
+    public boolean isBlocking() {
+        return syncWrites;
+    }
+
+    @Override
+    public long approximateMemoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return positions.length * 8L + writePosition;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int lastId() {
+        long stamp = lock.readLock();
+        try {
+            return maxId;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Iterator<Task> ascending(int afterId) {
+        return new ScanIterator(afterId, 1);
+    }
+
+    @Override
+    public Iterator<Task> descending(int beforeId) {
+        return new ScanIterator(beforeId, -1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            channel.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < FILE_HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a task log, or written by an older version without task versions");
+        }
+        return header.getInt();
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            segment(0).putInt(0, MAGIC).putInt(4, segmentSize);
+            writePosition = FILE_HEADER_SIZE;
+            return;
+        }
+        int segmentCount = (int) ((fileSize + segmentSize - 1) / segmentSize);
+        writePosition = FILE_HEADER_SIZE;
+        for (int s = 0; s < segmentCount; s++) {
+            MappedByteBuffer segment = segment(s);
+            int offset = s == 0 ? FILE_HEADER_SIZE : 0;
+            while (offset + HEADER_SIZE <= segmentSize) {
+                byte type = segment.get(offset);
+                if (type != PUT && type != DELETE) {
+                    break;
+                }
+                int id = segment.getInt(offset + 1);
+                int length = Short.toUnsignedInt(segment.getShort(offset + 9));
+                long position = (long) s * segmentSize + offset;
+                if (type == PUT) {
+                    if (positionOf(id) == 0) {
+                        size++;
+                    }
+                    index(id, position);
+                } else if (positionOf(id) != 0) {
+                    positions[id] = 0;
+                    size--;
+                }
+                offset += HEADER_SIZE + length;
+                writePosition = position + HEADER_SIZE + length;
+            }
+        }
+    }
+
+    private void appendPut(int id, int version, byte[] name) {
+        long position = append(PUT, id, version, name);
+        if (positionOf(id) == 0) {
+            size++;
+        }
+        index(id, position);
+    }
+
+    private long append(byte type, int id, int version, byte[] name) {
+        int recordSize = HEADER_SIZE + name.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Task record larger than log segment");
+        }
+        int offset = (int) (writePosition % segmentSize);
+        if (offset + recordSize > segmentSize) {
+            // Records never straddle segments; the unused tail stays zeroed
+            writePosition += segmentSize - offset;
+            offset = 0;
+        }
+        long position = writePosition;
+        MappedByteBuffer segment = segment((int) (position / segmentSize));
+        segment.putInt(offset + 1, id);
+        segment.putInt(offset + 5, version);
+        segment.putShort(offset + 9, (short) name.length);
+        segment.put(offset + HEADER_SIZE, name);
+        segment.put(offset, type);
+        if (syncWrites) {
+            segment.force(offset, recordSize);
+        }
+        writePosition = position + recordSize;
+        return position;
+    }
+
+    private Task readTask(long position) {
+        MappedByteBuffer segment = segments.get((int) (position / segmentSize));
+        int offset = (int) (position % segmentSize);
+        int id = segment.getInt(offset + 1);
+        int version = segment.getInt(offset + 5);
+        byte[] name = new byte[Short.toUnsignedInt(segment.getShort(offset + 9))];
+        segment.get(offset + HEADER_SIZE, name);
+        return new Task(id, new String(name, StandardCharsets.UTF_8), version);
+    }
+
+    private int versionAt(long position) {
+        return segments.get((int) (position / segmentSize)).getInt((int) (position % segmentSize) + 5);
+    }
+
+    private MappedByteBuffer segment(int index) {
+        try {
+            while (segments.size() <= index) {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE,
+                    (long) segments.size() * segmentSize, segmentSize));
+            }
+            return segments.get(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map task log segment " + index, e);
+        }
+    }
+
+    private long positionOf(int id) {
+        return id > 0 && id < positions.length ? positions[id] : 0;
+    }
+
+    private void index(int id, long position) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Task ID must be positive");
+        }
+        if (id >= positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(id + 1, positions.length << 1));
+        }
+        positions[id] = position;
+        maxId = Math.max(maxId, id);
+    }
+
+    private class ScanIterator implements Iterator<Task> {
+        private final int step;
+        private int cursor;
+        private Task next;
+
+        ScanIterator(int start, int step) {
+            this.step = step;
+            this.cursor = step > 0 ? Math.max(start, 0) : Math.min(start, lastId() + 1);
+            this.next = advance();
+        }
+
+        private Task advance() {
+            long stamp = lock.readLock();
+            try {
+                while ((step > 0 && cursor < maxId) || (step < 0 && cursor > 1)) {
+                    cursor += step;
+                    long position = positionOf(cursor);
+                    if (position != 0) {
+                        return readTask(position);
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Task next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Task current = next;
+            next = advance();
+            return current;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store-wide change counter, so "has anything changed?" is answered without scanning the store.
+ *
+ * Stores bump it after every write that changed something. The epoch is the creation time of
+ * the stamp and differs per process, so counts from before a restart never compare equal to
+ * counts after it, even for in-memory stores that start over from zero.
+ */
+public final class ModificationStamp {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong count = new AtomicLong();
+    private volatile long lastModified = epoch;
+
+    public void touch() {
+        count.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Wall-clock time of the last write in epoch milliseconds, or of creation if none yet.
+     */
+    public long lastModified() {
+        return lastModified;
+    }
+}
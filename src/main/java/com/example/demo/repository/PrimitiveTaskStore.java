@@ -0,0 +1,296 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Allocation-light store keyed on primitive ints.
+ *
+ * Open addressing with linear probing over parallel columns ({@code int[]} IDs, {@code String[]}
+ * names and {@code int[]} versions), so there is no Integer boxing, no map entry and no
+ * resident Task object per task; a Task is only materialized when read. Reads are optimistic
+ * ({@link StampedLock}) and fall back to a read lock if a writer interfered.
+ *
+ * Ordered scans probe consecutive IDs, which suits the dense IDs TaskService hands out;
+ * their cost grows with the number of deleted IDs in the scanned range.
+ */
+public class PrimitiveTaskStore implements TaskStore {
+
+    private static final int FREE = 0;
+    private static final double MAX_LOAD = 0.6;
+    private static final long BYTES_PER_NAME = 56;
+
+    private final StampedLock lock = new StampedLock();
+    private final ModificationStamp modifications = new ModificationStamp();
+    private int[] ids;
+    private String[] names;
+    private int[] versions;
+    private int size;
+    private int maxId;
+
+    public PrimitiveTaskStore(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (initialCapacity / MAX_LOAD)) - 1) << 1;
+        this.ids = new int[capacity];
+        this.names = new String[capacity];
+        this.versions = new int[capacity];
+    }
+
+    @Override
+    public Task get(int id) {
+        Task task = null;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            task = find(id);
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                task = find(id);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return task;
+    }
+
+    @Override
+    public void put(Task task) {
+        long stamp = lock.writeLock();
+        try {
+            insert(task);
+            modifications.touch();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void putAll(List<Task> tasks) {
+        long stamp = lock.writeLock();
+        try {
+            for (Task task : tasks) {
+                insert(task);
+            }
+            modifications.touch();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean replace(int expectedVersion, Task updated) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(ids, updated.getId());
+            if (ids[slot] == FREE || versions[slot] != expectedVersion) {
+                return false;
+            }
+            names[slot] = updated.getName();
+            versions[slot] = updated.getVersion();
+            modifications.touch();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task remove(int id) {
+        long stamp = lock.writeLock();
+        try {
+            int mask = ids.length - 1;
+            int gap = slotOf(ids, id);
+            if (ids[gap] == FREE) {
+                return null;
+            }
+            Task removed = new Task(id, names[gap], versions[gap]);
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            for (int i = (gap + 1) & mask; ids[i] != FREE; i = (i + 1) & mask) {
+                int home = hash(ids[i]) & mask;
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    ids[gap] = ids[i];
+                    names[gap] = names[i];
+                    versions[gap] = versions[i];
+                    gap = i;
+                }
+            }
+            ids[gap] = FREE;
+            names[gap] = null;
+            versions[gap] = 0;
+            size--;
+            modifications.touch();
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public ModificationStamp modifications() {
+        return modifications;
+    }
+
+    @Override
+    public long approximateMemoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            // Two ints and a compressed reference per slot, plus the name strings
+            return ids.length * 12L + size * BYTES_PER_NAME;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int lastId() {
+        long stamp = lock.readLock();
+        try {
+            return maxId;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Iterator<Task> ascending(int afterId) {
+        return new ProbingIterator(afterId, 1);
+    }
+
+    @Override
+    public Iterator<Task> descending(int beforeId) {
+        return new ProbingIterator(beforeId, -1);
+    }
+
+    private void insert(Task task) {
+        int id = task.getId();
+        if (id == FREE) {
+            throw new IllegalArgumentException("ID " + FREE + " is reserved");
+        }
+        int slot = slotOf(ids, id);
+        if (ids[slot] == FREE) {
+            if (size + 1 > ids.length * MAX_LOAD) {
+                resize();
+                slot = slotOf(ids, id);
+            }
+            ids[slot] = id;
+            size++;
+            maxId = Math.max(maxId, id);
+        }
+        names[slot] = task.getName();
+        versions[slot] = task.getVersion();
+    }
+
+    /**
+     * Looks the task up without locking; callers validate or hold the lock.
+     */
+    private Task find(int id) {
+        int[] currentIds = ids;
+        String[] currentNames = names;
+        int[] currentVersions = versions;
+        if (currentIds.length != currentNames.length || currentIds.length != currentVersions.length) {
+            return null; // torn read during resize, caller will retry under the lock
+        }
+        int mask = currentIds.length - 1;
+        int slot = hash(id) & mask;
+        for (int probes = 0; probes < currentIds.length; probes++) {
+            int candidate = currentIds[slot];
+            if (candidate == id) {
+                String name = currentNames[slot];
+                return name == null ? null : new Task(id, name, currentVersions[slot]);
+            }
+            if (candidate == FREE) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private void resize() {
+        int[] oldIds = ids;
+        String[] oldNames = names;
+        int[] newIds = new int[oldIds.length << 1];
+        String[] newNames = new String[newIds.length];
+        int[] newVersions = new int[newIds.length];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != FREE) {
+                int slot = slotOf(newIds, oldIds[i]);
+                newIds[slot] = oldIds[i];
+                newNames[slot] = oldNames[i];
+                newVersions[slot] = versions[i];
+            }
+        }
+        ids = newIds;
+        names = newNames;
+        versions = newVersions;
+    }
+
+    private static int slotOf(int[] table, int id) {
+        int mask = table.length - 1;
+        int slot = hash(id) & mask;
+        while (table[slot] != FREE && table[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private class ProbingIterator implements Iterator<Task> {
+        private final int step;
+        private int cursor;
+        private Task next;
+
+        ProbingIterator(int start, int step) {
+            this.step = step;
+            this.cursor = step > 0 ? Math.max(start, 0) : Math.min(start, lastId() + 1);
+            this.next = advance();
+        }
+
+        private Task advance() {
+            int limit = lastId();
+            while (true) {
+                if ((step > 0 && cursor >= limit) || (step < 0 && cursor <= 1)) {
+                    return null;
+                }
+                cursor += step;
+                Task task = get(cursor);
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Task next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Task current = next;
+            next = advance();
+            return current;
+        }
+    }
+}
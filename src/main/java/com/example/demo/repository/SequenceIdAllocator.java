@@ -0,0 +1,88 @@
+package com.example.demo.repository;
+
+import com.example.demo.service.TaskIdAllocator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pooled allocator over a database sequence, so IDs stay unique across restarts and instances.
+ *
+ * The sequence steps by {@code poolSize} and each value it returns is the low end of a block
+ * of {@code poolSize} IDs (Hibernate's "pooled-lo" scheme), so only one in {@code poolSize}
+ * allocations goes to the database. A lock rather than {@code synchronized} guards the block so
+ * the occasional database call does not pin a virtual thread.
+ *
+ * The sequence starts past the highest ID already stored. One that is behind the table, because
+ * rows were written without it, is moved past them on startup rather than handing out IDs that
+ * are taken.
+ */
+public class SequenceIdAllocator implements TaskIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueQuery;
+    private final int poolSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int nextId;
+    private int blockEnd;
+
+    /**
+     * @param lastId highest ID already stored, or 0 when empty
+     */
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate, String sequence, int poolSize, int lastId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueQuery = "select next value for " + sequence;
+        this.poolSize = poolSize;
+        long start = (long) lastId + 1;
+        jdbcTemplate.execute("create sequence if not exists " + sequence
+            + " start with " + start + " increment by " + poolSize);
+        lock.lock();
+        try {
+            fetchBlock();
+            if (nextId <= lastId) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + start);
+                fetchBlock();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int next() {
+        lock.lock();
+        try {
+            if (nextId == blockEnd) {
+                fetchBlock();
+            }
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void next(int[] ids) {
+        lock.lock();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                if (nextId == blockEnd) {
+                    fetchBlock();
+                }
+                ids[i] = nextId++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fetchBlock() {
+        Long low = jdbcTemplate.queryForObject(nextValueQuery, Long.class);
+        if (low == null || low + poolSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Task ID sequence exhausted");
+        }
+        nextId = low.intValue();
+        blockEnd = nextId + poolSize;
+    }
+}
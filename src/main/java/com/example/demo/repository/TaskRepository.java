@@ -1,9 +1,68 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Task;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Integer> {
+
+    @Query("select max(t.id) from Task t")
+    Integer findMaxId();
+
+    @Query("select t.id from Task t where t.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Rows are name length and task count, one per distinct length.
+     */
+    @Query("select length(t.name), count(t) from Task t group by length(t.name)")
+    List<Object[]> countByNameLength();
+
+    List<Task> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+    List<Task> findByIdLessThanOrderByIdDesc(int id, Limit limit);
+
+    /**
+     * Renames in one statement, without loading the entity first.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.name = :name, t.version = :version where t.id = :id")
+    int rename(@Param("id") int id, @Param("name") String name, @Param("version") int version);
+
+    /**
+     * Renames only if the row is still at {@code expected}; the version check and write are one statement.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.name = :name, t.version = :version where t.id = :id and t.version = :expected")
+    int renameIfVersion(@Param("id") int id, @Param("name") String name, @Param("version") int version,
+                        @Param("expected") int expected);
+
+    /**
+     * Loads the tasks about to be deleted with their rows locked, so a concurrent rename waits
+     * and the versions read are the ones the delete removes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id in :ids")
+    List<Task> lockAllByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Deletes in one statement instead of loading and removing each entity.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Task t where t.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Integer> ids);
 }
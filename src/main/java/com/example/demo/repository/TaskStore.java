@@ -0,0 +1,122 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage engine behind TaskService.
+ *
+ * Implementations must be thread-safe. Iterators are weakly consistent: they never throw
+ * ConcurrentModificationException and may or may not reflect writes made after creation.
+ */
+public interface TaskStore {
+
+    Task get(int id);
+
+    /**
+     * Inserts the task, or replaces the stored task with the same ID.
+     */
+    void put(Task task);
+
+    /**
+     * Bulk {@link #put}; stores override this to take their write lock once per batch.
+     */
+    default void putAll(List<Task> tasks) {
+        tasks.forEach(this::put);
+    }
+
+    /**
+     * Atomically replaces the stored task with {@code updated} (same ID) if the stored task is
+     * still at {@code expectedVersion}; the compare-and-set behind optimistic updates.
+     *
+     * @return false if the task is missing or at another version, leaving the store unchanged
+     */
+    boolean replace(int expectedVersion, Task updated);
+
+    /**
+     * @return the task as it was when removed, so callers know which version the delete
+     *         followed, or null if there was no task with this ID
+     */
+    Task remove(int id);
+
+    /**
+     * Bulk {@link #remove}; stores override this to delete in one round trip.
+     *
+     * @return the tasks that were present and have been removed, as they were when removed
+     */
+    default List<Task> removeAll(Collection<Integer> ids) {
+        List<Task> removed = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Task task = remove(id);
+            if (task != null) {
+                removed.add(task);
+            }
+        }
+        return removed;
+    }
+
+    int size();
+
+    /**
+     * Task counts by name length in characters, for {@link #isShared shared} stores whose
+     * contents this process cannot track. Scans by default; shared stores override this to
+     * aggregate where the data is.
+     */
+    default Map<Integer, Long> countByNameLength() {
+        Map<Integer, Long> counts = new HashMap<>();
+        Iterator<Task> tasks = ascending(0);
+        while (tasks.hasNext()) {
+            counts.merge(tasks.next().getName().length(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Store-wide change counter, bumped by every write that changed something.
+     */
+    ModificationStamp modifications();
+
+    /**
+     * Whether other processes may write the data behind this store, so counts and change stamps
+     * kept by this process miss some changes and only the store itself is authoritative.
+     */
+    default boolean isShared() {
+        return false;
+    }
+
+    /**
+     * Whether calls may block on I/O. Reactive handlers move blocking stores off the event loop.
+     */
+    default boolean isBlocking() {
+        return false;
+    }
+
+    /**
+     * Rough memory held by the store for metrics, heap plus any mapped file, or -1 if unknown.
+     */
+    default long approximateMemoryBytes() {
+        return -1;
+    }
+
+    /**
+     * Highest ID held by the store, or 0 when empty. Used to seed ID allocation on startup.
+     */
+    int lastId();
+
+    /**
+     * Tasks with an ID greater than {@code afterId}, in ascending ID order.
+     */
+    Iterator<Task> ascending(int afterId);
+
+    /**
+     * Tasks with an ID lower than {@code beforeId}, in descending ID order.
+     */
+    Iterator<Task> descending(int beforeId);
+}
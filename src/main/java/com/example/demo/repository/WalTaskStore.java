@@ -0,0 +1,955 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * In-memory store made durable by a write-ahead log (WAL) and periodic snapshots.
+ *
+ * Every mutation is logged before memory changes. Writers hand their record to a single
+ * committer thread and wait; the committer writes whatever has queued up as one frame and
+ * syncs it once, so concurrent writers share an fsync (group commit). {@code commitDelay}
+ * holds each commit back to let more writers join. Without {@code syncWrites}, writers
+ * return once their record is queued and the log is synced every {@code syncInterval}, so a
+ * crash loses at most that much. Writes to one task are serialized by a lock stripe held
+ * from the check through the memory update, so the log has each task's changes in order.
+ *
+ * Log frames are {@code [length:4][crc32c:4][records]}, with each record
+ * {@code [type:1][id:4]} plus {@code [version:4][nameLength:2][name:UTF-8]} for a PUT.
+ * Recovery stops reading a log file at the first torn or corrupt frame. A write error
+ * leaves the log in an unknown state, so the store refuses writes from then on.
+ *
+ * Every {@code snapshotInterval} with changes, and on close, the store switches to a new
+ * log file and writes all tasks and the highest ID ever stored to a snapshot of CRC-checked
+ * chunks, after which older logs and snapshots are deleted. Startup loads the newest snapshot
+ * chunk by chunk on {@code recoveryThreads} threads, then replays the logs written since:
+ * frames are decoded in parallel and applied by the same threads, each owning the tasks whose
+ * ID falls in its partition, so every task still sees its changes in order.
+ */
+public class WalTaskStore implements TaskStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WalTaskStore.class);
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int PUT_HEADER_SIZE = 1 + 4 + 4 + 2;
+    private static final int DELETE_SIZE = 1 + 4;
+    private static final int LOG_MAGIC = 0x54574C31; // "TWL1"
+    private static final int SNAPSHOT_MAGIC = 0x54534E31; // "TSN1"
+    private static final int SNAPSHOT_HEADER_SIZE = 8; // magic + highest ID
+    private static final int FRAME_HEADER_SIZE = 8; // length + CRC32C
+    private static final int SNAPSHOT_CHUNK_BYTES = 1 << 20;
+    private static final int LOCK_STRIPES = 256;
+    private static final Pattern FILE_NAME = Pattern.compile("(wal|snapshot)-([0-9a-f]{16})\\.(log|bin)");
+    private static final Entry STOP = new Entry(null, null);
+
+    private final TaskStore memory;
+    private final Path directory;
+    private final boolean syncWrites;
+    private final long commitDelayNanos;
+    private final long syncIntervalNanos;
+    private final int maxBatch;
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger highestId = new AtomicInteger();
+    private final Thread committer;
+    private final ScheduledExecutorService snapshotter;
+    private volatile boolean open = true;
+    private volatile IOException broken;
+    private final AtomicLong logged = new AtomicLong();
+    private volatile long loggedAtSnapshot;
+    private Timer commitTimer;
+    private DistributionSummary batchSizes;
+    private Timer snapshotTimer;
+    // Owned by the committer thread
+    private FileChannel wal;
+    private long generation;
+    private ByteBuffer frame = ByteBuffer.allocateDirect(64 * 1024);
+    private boolean unsynced;
+    private long lastSyncNanos = System.nanoTime();
+
+    /**
+     * @param memory empty store to serve from, filled by recovery
+     * @param syncWrites make writers wait for the fsync of their record instead of only for the queue
+     * @param commitDelay pause before each commit to gather more writers, or zero
+     * @param syncInterval most time an unsynced record waits for an fsync when writes are not synchronous
+     * @param maxBatch most records in one frame
+     * @param snapshotInterval how often to snapshot, if anything changed
+     * @param recoveryThreads threads loading the snapshot and replaying the log on startup
+     */
+    public WalTaskStore(TaskStore memory, Path directory, boolean syncWrites, Duration commitDelay,
+                        Duration syncInterval, int maxBatch, Duration snapshotInterval, int recoveryThreads) {
+        this.memory = memory;
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+        this.commitDelayNanos = commitDelay.toNanos();
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.maxBatch = maxBatch;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        CompositeMeterRegistry noop = new CompositeMeterRegistry();
+        this.commitTimer = Timer.builder("tasks.wal.commit").register(noop);
+        this.batchSizes = DistributionSummary.builder("tasks.wal.batch").register(noop);
+        this.snapshotTimer = Timer.builder("tasks.wal.snapshot").register(noop);
+        try {
+            Files.createDirectories(directory);
+            long newest = recover(Math.max(1, recoveryThreads));
+            openLog(newest + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover tasks from " + directory, e);
+        }
+        this.committer = new Thread(this::commitLoop, "task-wal-commit");
+        committer.setDaemon(true);
+        committer.start();
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-wal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = snapshotInterval.toMillis();
+        snapshotter.scheduleWithFixedDelay(this::snapshotIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers commit latency, records per group commit and snapshot duration.
+     */
+    public void bindTo(MeterRegistry registry) {
+        commitTimer = Timer.builder("tasks.wal.commit")
+            .description("Time to write one group commit to the log, including the fsync when there is one")
+            .register(registry);
+        batchSizes = DistributionSummary.builder("tasks.wal.batch")
+            .description("Mutations written per group commit")
+            .register(registry);
+        snapshotTimer = Timer.builder("tasks.wal.snapshot")
+            .description("Time to write one snapshot of all tasks")
+            .register(registry);
+    }
+
+    @Override
+    public Task get(int id) {
+        return memory.get(id);
+    }
+
+    @Override
+    public void put(Task task) {
+        ReentrantLock stripe = stripeOf(task.getId());
+        stripe.lock();
+        try {
+            await(log(encodePut(task)));
+            memory.put(task);
+            highestId.accumulateAndGet(task.getId(), Math::max);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Logs the whole batch as consecutive records and waits once, for the last of them.
+     */
+    @Override
+    public void putAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        boolean[] locked = lock(tasks.stream().mapToInt(Task::getId).toArray());
+        try {
+            Entry last = null;
+            int maxId = 0;
+            for (Task task : tasks) {
+                last = log(encodePut(task));
+                maxId = Math.max(maxId, task.getId());
+            }
+            await(last);
+            memory.putAll(tasks);
+            highestId.accumulateAndGet(maxId, Math::max);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public boolean replace(int expectedVersion, Task updated) {
+        ReentrantLock stripe = stripeOf(updated.getId());
+        stripe.lock();
+        try {
+            Task current = memory.get(updated.getId());
+            if (current == null || current.getVersion() != expectedVersion) {
+                return false;
+            }
+            await(log(encodePut(updated)));
+            return memory.replace(expectedVersion, updated);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public Task remove(int id) {
+        ReentrantLock stripe = stripeOf(id);
+        stripe.lock();
+        try {
+            if (memory.get(id) == null) {
+                return null;
+            }
+            await(log(encodeDelete(id)));
+            return memory.remove(id);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> removeAll(Collection<Integer> ids) {
+        boolean[] locked = lock(ids.stream().mapToInt(Integer::intValue).toArray());
+        try {
+            Set<Integer> present = new HashSet<>();
+            Entry last = null;
+            for (Integer id : ids) {
+                if (memory.get(id) != null && present.add(id)) {
+                    last = log(encodeDelete(id));
+                }
+            }
+            if (last == null) {
+                return List.of();
+            }
+            await(last);
+            return memory.removeAll(present);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public int size() {
+        return memory.size();
+    }
+
+    @Override
+    public ModificationStamp modifications() {
+        return memory.modifications();
+    }
+
+    /**
+     * Synchronous writes wait for the disk; otherwise writes only wait for the queue.
+     */
+    @Override
+    public boolean isBlocking() {
+        return syncWrites;
+    }
+
+    @Override
+    public long approximateMemoryBytes() {
+        return memory.approximateMemoryBytes();
+    }
+
+    /**
+     * Highest ID ever stored, including deleted tasks, so IDs are not reused after a restart.
+     */
+    @Override
+    public int lastId() {
+        return Math.max(highestId.get(), memory.lastId());
+    }
+
+    @Override
+    public Iterator<Task> ascending(int afterId) {
+        return memory.ascending(afterId);
+    }
+
+    @Override
+    public Iterator<Task> descending(int beforeId) {
+        return memory.descending(beforeId);
+    }
+
+    /**
+     * Switches to a new log file and writes every task to a snapshot, then deletes the log files
+     * and snapshots it replaces. Writes pause only for the switch, not for the snapshot itself.
+     */
+    public synchronized void snapshot() {
+        long started = System.nanoTime();
+        Entry rotation = new Entry(null, Thread.currentThread());
+        boolean[] all = lockAll();
+        try {
+            submit(rotation);
+            await(rotation);
+            loggedAtSnapshot = logged.get();
+        } finally {
+            unlock(all);
+        }
+        // Everything logged before the switch is in memory now; later changes replay over the snapshot
+        long snapshotGeneration = rotation.generation;
+        Path target = directory.resolve(fileName("snapshot", snapshotGeneration));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        int tasks;
+        try {
+            tasks = writeSnapshot(temporary, highestId.get());
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+            deleteBefore(snapshotGeneration);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write task snapshot " + target, e);
+        }
+        long elapsed = System.nanoTime() - started;
+        snapshotTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Wrote snapshot of {} tasks in {} ms", tasks, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Stops taking snapshots, takes a last one if anything changed so the next start has no log
+     * to replay, and stops the committer after it has synced everything queued.
+     */
+    @Override
+    public void close() {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(30, TimeUnit.SECONDS);
+            if (broken == null && logged.get() != loggedAtSnapshot) {
+                snapshot();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Could not take the shutdown snapshot, the log will be replayed instead", e);
+        }
+        boolean[] all = lockAll();
+        try {
+            open = false;
+            queue.add(STOP);
+        } finally {
+            unlock(all);
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void snapshotIfChanged() {
+        if (logged.get() == loggedAtSnapshot || broken != null) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.warn("Snapshot failed, retrying on the next cycle", e);
+        }
+    }
+
+    private Entry log(byte[] record) {
+        Entry entry = new Entry(record, syncWrites ? Thread.currentThread() : null);
+        submit(entry);
+        logged.incrementAndGet();
+        return entry;
+    }
+
+    private void submit(Entry entry) {
+        if (broken != null) {
+            throw new UncheckedIOException("Task log failed, writes are refused", broken);
+        }
+        if (!open) {
+            throw new IllegalStateException("Task store is closed");
+        }
+        queue.add(entry);
+    }
+
+    /**
+     * Waits for the committer to finish an entry, if its writer waits at all.
+     */
+    private static void await(Entry entry) {
+        if (entry.waiter == null) {
+            return;
+        }
+        while (!entry.done) {
+            LockSupport.park(entry);
+        }
+        if (entry.failure != null) {
+            throw new UncheckedIOException("Could not write the task log", entry.failure);
+        }
+    }
+
+    private void commitLoop() {
+        List<Entry> batch = new ArrayList<>(maxBatch);
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                Entry first = syncWrites ? queue.take() : queue.poll(syncIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    if (commitDelayNanos > 0) {
+                        LockSupport.parkNanos(commitDelayNanos);
+                    }
+                    queue.drainTo(batch, maxBatch - 1);
+                }
+                stopped = commit(batch);
+            } catch (InterruptedException e) {
+                // Nobody interrupts the committer; an interrupt during I/O would close the log
+                Thread.interrupted();
+            }
+            batch.clear();
+        }
+        try {
+            wal.close();
+        } catch (IOException e) {
+            log.warn("Could not close the task log", e);
+        }
+    }
+
+    /**
+     * Writes a batch up to each rotation or stop marker in it, syncing before the marker.
+     *
+     * @return whether the batch ended with the stop marker
+     */
+    private boolean commit(List<Entry> batch) {
+        int from = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Entry marker = batch.get(i);
+            if (marker.record != null) {
+                continue;
+            }
+            write(batch, from, i, true);
+            if (marker == STOP) {
+                return true;
+            }
+            try {
+                if (broken != null) {
+                    throw broken;
+                }
+                openLog(generation + 1);
+                marker.generation = generation;
+                marker.complete(null);
+            } catch (IOException e) {
+                fail(e);
+                marker.complete(e);
+            }
+            from = i + 1;
+        }
+        write(batch, from, batch.size(), syncWrites || System.nanoTime() - lastSyncNanos >= syncIntervalNanos);
+        return false;
+    }
+
+    private void write(List<Entry> batch, int from, int to, boolean sync) {
+        IOException failure = broken;
+        if (failure == null) {
+            long started = System.nanoTime();
+            try {
+                if (from < to) {
+                    appendFrame(batch, from, to);
+                    batchSizes.record(to - from);
+                    unsynced = true;
+                }
+                if (sync && unsynced) {
+                    wal.force(false);
+                    unsynced = false;
+                    lastSyncNanos = System.nanoTime();
+                }
+                if (from < to) {
+                    commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            } catch (IOException e) {
+                fail(e);
+                failure = e;
+            }
+        }
+        for (int i = from; i < to; i++) {
+            batch.get(i).complete(failure);
+        }
+    }
+
+    private void appendFrame(List<Entry> batch, int from, int to) throws IOException {
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            length += batch.get(i).record.length;
+        }
+        if (frame.capacity() < FRAME_HEADER_SIZE + length) {
+            frame = ByteBuffer.allocateDirect(Integer.highestOneBit(FRAME_HEADER_SIZE + length) << 1);
+        }
+        frame.clear().position(FRAME_HEADER_SIZE);
+        for (int i = from; i < to; i++) {
+            frame.put(batch.get(i).record);
+        }
+        frame.flip();
+        CRC32C crc = new CRC32C();
+        crc.update(frame.duplicate().position(FRAME_HEADER_SIZE));
+        frame.putInt(0, length).putInt(4, (int) crc.getValue());
+        while (frame.hasRemaining()) {
+            wal.write(frame);
+        }
+    }
+
+    private void fail(IOException e) {
+        if (broken == null) {
+            log.error("Task log write failed, refusing further writes", e);
+            broken = e;
+        }
+    }
+
+    /**
+     * Syncs and closes the current log file, if any, and starts the next one.
+     */
+    private void openLog(long nextGeneration) throws IOException {
+        if (wal != null) {
+            wal.force(false);
+            wal.close();
+        }
+        wal = FileChannel.open(directory.resolve(fileName("wal", nextGeneration)),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        wal.write(ByteBuffer.allocate(4).putInt(0, LOG_MAGIC));
+        wal.force(false);
+        syncDirectory();
+        generation = nextGeneration;
+        unsynced = false;
+    }
+
+    private int writeSnapshot(Path file, int lastId) throws IOException {
+        int count = 0;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(out, ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE).putInt(SNAPSHOT_MAGIC).putInt(lastId).flip());
+            ByteBuffer chunk = ByteBuffer.allocate(SNAPSHOT_CHUNK_BYTES + PUT_HEADER_SIZE + 0xFFFF);
+            chunk.position(FRAME_HEADER_SIZE);
+            Iterator<Task> tasks = memory.ascending(0);
+            while (tasks.hasNext()) {
+                Task task = tasks.next();
+                byte[] name = task.getName().getBytes(StandardCharsets.UTF_8);
+                chunk.putInt(task.getId()).putInt(task.getVersion()).putShort((short) name.length).put(name);
+                count++;
+                if (chunk.position() >= SNAPSHOT_CHUNK_BYTES) {
+                    writeChunk(out, chunk);
+                }
+            }
+            if (chunk.position() > FRAME_HEADER_SIZE) {
+                writeChunk(out, chunk);
+            }
+            out.force(true);
+        }
+        return count;
+    }
+
+    private static void writeChunk(FileChannel out, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        CRC32C crc = new CRC32C();
+        crc.update(chunk.duplicate().position(FRAME_HEADER_SIZE));
+        chunk.putInt(0, chunk.limit() - FRAME_HEADER_SIZE).putInt(4, (int) crc.getValue());
+        writeFully(out, chunk);
+        chunk.clear().position(FRAME_HEADER_SIZE);
+    }
+
+    /**
+     * Loads the newest snapshot and replays the logs written after it.
+     *
+     * @return the newest generation found on disk, or 0 for an empty directory
+     */
+    private long recover(int threads) throws IOException {
+        long started = System.nanoTime();
+        long newest = 0;
+        long snapshotGeneration = -1;
+        List<Long> logs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // A snapshot interrupted by a crash; the logs it would have replaced are still here
+                    Files.delete(file);
+                    continue;
+                }
+                Matcher matcher = FILE_NAME.matcher(name);
+                if (!matcher.matches()) {
+                    continue;
+                }
+                long fileGeneration = Long.parseUnsignedLong(matcher.group(2), 16);
+                newest = Math.max(newest, fileGeneration);
+                if ("snapshot".equals(matcher.group(1))) {
+                    snapshotGeneration = Math.max(snapshotGeneration, fileGeneration);
+                } else {
+                    logs.add(fileGeneration);
+                }
+            }
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "task-wal-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            int loaded = snapshotGeneration < 0 ? 0
+                : loadSnapshot(directory.resolve(fileName("snapshot", snapshotGeneration)), pool);
+            long minimum = snapshotGeneration;
+            long replayed = replay(logs.stream().filter(g -> g >= minimum).sorted().toList(), pool, threads);
+            if (loaded > 0 || replayed > 0) {
+                log.info("Recovered {} tasks from a snapshot of {} and {} logged changes in {} ms",
+                    memory.size(), loaded, replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return newest;
+    }
+
+    private int loadSnapshot(Path file, ExecutorService pool) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(in, 0, SNAPSHOT_HEADER_SIZE);
+            if (header.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a task snapshot: " + file);
+            }
+            highestId.accumulateAndGet(header.getInt(), Math::max);
+            // Chunk boundaries come from the length prefixes; the chunks themselves load in parallel
+            List<Callable<Integer>> chunks = new ArrayList<>();
+            long size = in.size();
+            long position = SNAPSHOT_HEADER_SIZE;
+            while (position < size) {
+                ByteBuffer chunkHeader = readFully(in, position, FRAME_HEADER_SIZE);
+                long start = position;
+                int length = chunkHeader.getInt();
+                int checksum = chunkHeader.getInt();
+                position += FRAME_HEADER_SIZE + (long) length;
+                if (length <= 0 || position > size) {
+                    throw new IOException("Truncated task snapshot: " + file);
+                }
+                chunks.add(() -> loadChunk(readFully(in, start + FRAME_HEADER_SIZE, length), checksum, file));
+            }
+            int loaded = 0;
+            for (int count : runAll(pool, chunks)) {
+                loaded += count;
+            }
+            return loaded;
+        }
+    }
+
+    private int loadChunk(ByteBuffer chunk, int checksum, Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(chunk.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Corrupt task snapshot: " + file);
+        }
+        List<Task> tasks = new ArrayList<>();
+        byte[] bytes = chunk.array();
+        while (chunk.hasRemaining()) {
+            int id = chunk.getInt();
+            int version = chunk.getInt();
+            int length = Short.toUnsignedInt(chunk.getShort());
+            tasks.add(new Task(id, new String(bytes, chunk.position(), length, StandardCharsets.UTF_8), version));
+            chunk.position(chunk.position() + length);
+        }
+        memory.putAll(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Reads the frames of each log in order, decodes them in parallel, then applies them in
+     * parallel with one partition of task IDs per thread.
+     *
+     * @return the number of records applied
+     */
+    private long replay(List<Long> generations, ExecutorService pool, int threads) throws IOException {
+        List<Frame> frames = new ArrayList<>();
+        for (long logGeneration : generations) {
+            readFrames(directory.resolve(fileName("wal", logGeneration)), frames);
+        }
+        List<Callable<Void>> decoders = new ArrayList<>();
+        int perDecoder = Math.max(1, (frames.size() + threads * 4 - 1) / (threads * 4));
+        for (int from = 0; from < frames.size(); from += perDecoder) {
+            List<Frame> slice = frames.subList(from, Math.min(frames.size(), from + perDecoder));
+            decoders.add(() -> {
+                slice.forEach(Frame::decode);
+                return null;
+            });
+        }
+        runAll(pool, decoders);
+
+        // A bad frame ends its file: everything after it was written by a run that then crashed
+        List<Frame> valid = new ArrayList<>(frames.size());
+        Path skipping = null;
+        long records = 0;
+        for (Frame frame : frames) {
+            if (frame.file.equals(skipping)) {
+                continue;
+            }
+            if (frame.ids == null) {
+                log.warn("Task log {} is corrupt or torn, replaying only what precedes it", frame.file);
+                skipping = frame.file;
+                continue;
+            }
+            valid.add(frame);
+            records += frame.ids.length;
+            highestId.accumulateAndGet(frame.maxId, Math::max);
+        }
+        List<Callable<Void>> appliers = new ArrayList<>();
+        for (int partition = 0; partition < threads; partition++) {
+            int owned = partition;
+            appliers.add(() -> {
+                for (Frame frame : valid) {
+                    frame.apply(memory, threads, owned);
+                }
+                return null;
+            });
+        }
+        runAll(pool, appliers);
+        return records;
+    }
+
+    /**
+     * Adds the complete frames of one log file; a short or implausible frame ends the file.
+     */
+    private static void readFrames(Path file, List<Frame> frames) throws IOException {
+        long remaining = Files.size(file);
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            if (remaining < 4 || in.readInt() != LOG_MAGIC) {
+                return;
+            }
+            remaining -= 4;
+            while (remaining >= FRAME_HEADER_SIZE) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                remaining -= FRAME_HEADER_SIZE;
+                if (length <= 0 || length > remaining) {
+                    return;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                remaining -= length;
+                frames.add(new Frame(file, payload, checksum));
+            }
+        } catch (EOFException e) {
+            // Torn tail
+        }
+    }
+
+    private static <T> List<T> runAll(ExecutorService pool, List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during recovery", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Recovery failed", e.getCause());
+        }
+        return results;
+    }
+
+    private void deleteBefore(long keepGeneration) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && Long.parseUnsignedLong(matcher.group(2), 16) < keepGeneration) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes file creations and renames durable; not every platform can open a directory.
+     */
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Could not sync directory {}", directory, e);
+        }
+    }
+
+    private static String fileName(String kind, long fileGeneration) {
+        return String.format("%s-%016x.%s", kind, fileGeneration, "wal".equals(kind) ? "log" : "bin");
+    }
+
+    private static ByteBuffer readFully(FileChannel in, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Task file ends early");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static byte[] encodePut(Task task) {
+        byte[] name = task.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xFFFF) {
+            throw new IllegalArgumentException("Task name too long to log");
+        }
+        return ByteBuffer.allocate(PUT_HEADER_SIZE + name.length)
+            .put(PUT).putInt(task.getId()).putInt(task.getVersion()).putShort((short) name.length).put(name)
+            .array();
+    }
+
+    private static byte[] encodeDelete(int id) {
+        return ByteBuffer.allocate(DELETE_SIZE).put(DELETE).putInt(id).array();
+    }
+
+    private ReentrantLock stripeOf(int id) {
+        return stripes[id & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Locks the stripes of all IDs in ascending stripe order, so bulk writers cannot deadlock.
+     */
+    private boolean[] lock(int[] ids) {
+        boolean[] locked = new boolean[LOCK_STRIPES];
+        for (int id : ids) {
+            locked[id & (LOCK_STRIPES - 1)] = true;
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            if (locked[i]) {
+                stripes[i].lock();
+            }
+        }
+        return locked;
+    }
+
+    private boolean[] lockAll() {
+        boolean[] all = new boolean[LOCK_STRIPES];
+        Arrays.fill(all, true);
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        return all;
+    }
+
+    private void unlock(boolean[] locked) {
+        for (int i = LOCK_STRIPES - 1; i >= 0; i--) {
+            if (locked[i]) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * One queued record, or a rotation or stop marker when {@code record} is null.
+     */
+    private static final class Entry {
+        final byte[] record;
+        final Thread waiter;
+        volatile boolean done;
+        volatile IOException failure;
+        long generation;
+
+        Entry(byte[] record, Thread waiter) {
+            this.record = record;
+            this.waiter = waiter;
+        }
+
+        void complete(IOException failure) {
+            this.failure = failure;
+            this.done = true;
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    /**
+     * One log frame as read from disk; {@link #decode} leaves {@code ids} null if it is corrupt.
+     */
+    private static final class Frame {
+        final Path file;
+        final byte[] payload;
+        final int checksum;
+        int[] ids;
+        Task[] tasks; // null entries are deletes
+        int maxId;
+
+        Frame(Path file, byte[] payload, int checksum) {
+            this.file = file;
+            this.payload = payload;
+            this.checksum = checksum;
+        }
+
+        void decode() {
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+            ByteBuffer in = ByteBuffer.wrap(payload);
+            int[] decodedIds = new int[payload.length / DELETE_SIZE];
+            Task[] decodedTasks = new Task[decodedIds.length];
+            int count = 0;
+            while (in.hasRemaining()) {
+                byte type = in.get();
+                int id = in.getInt();
+                if (type == PUT) {
+                    int version = in.getInt();
+                    int length = Short.toUnsignedInt(in.getShort());
+                    decodedTasks[count] = new Task(id, new String(payload, in.position(), length,
+                        StandardCharsets.UTF_8), version);
+                    in.position(in.position() + length);
+                    maxId = Math.max(maxId, id);
+                }
+                decodedIds[count++] = id;
+            }
+            tasks = Arrays.copyOf(decodedTasks, count);
+            ids = Arrays.copyOf(decodedIds, count);
+        }
+
+        void apply(TaskStore store, int partitions, int partition) {
+            for (int i = 0; i < ids.length; i++) {
+                if (Math.floorMod(ids[i], partitions) != partition) {
+                    continue;
+                }
+                if (tasks[i] == null) {
+                    store.remove(ids[i]);
+                } else {
+                    store.put(tasks[i]);
+                }
+            }
+        }
+    }
+}
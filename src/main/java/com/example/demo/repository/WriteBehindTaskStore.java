@@ -0,0 +1,300 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Task;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory store that persists to a durable store asynchronously.
+ *
+ * Every mutation is applied to memory at once and recorded in a pending map keyed by task ID,
+ * so repeated writes to one task coalesce into the latest state. A single flusher thread drains
+ * the map into the durable store in batches, when {@code batchSize} tasks are pending or every
+ * {@code flushInterval}, whichever comes first, and once more on close.
+ *
+ * The pending map holds at most {@code capacity} tasks. When it is full, writers wait up to
+ * {@code offerTimeout} for a flush to make room and then fail, so a slow database throttles
+ * writers instead of growing the backlog without bound. Reads never touch the durable store;
+ * it is only read once, on startup, to load memory.
+ */
+public class WriteBehindTaskStore implements TaskStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindTaskStore.class);
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final TaskStore memory;
+    private final TaskStore durable;
+    private final int batchSize;
+    private final long offerTimeoutNanos;
+    private final Map<Integer, Mutation> pending = new ConcurrentHashMap<>();
+    private final Semaphore capacity;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private Timer flushTimer;
+
+    public WriteBehindTaskStore(TaskStore memory, TaskStore durable, int capacity, int batchSize,
+                                Duration flushInterval, Duration offerTimeout) {
+        this.memory = memory;
+        this.durable = durable;
+        this.batchSize = batchSize;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.capacity = new Semaphore(capacity);
+        this.flushTimer = Timer.builder("tasks.writebehind.flush").register(new CompositeMeterRegistry());
+        load();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers the backlog size, flush lag and flush duration.
+     */
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.writebehind.pending", pending, Map::size)
+            .description("Tasks changed in memory and not yet flushed")
+            .register(registry);
+        Gauge.builder("tasks.writebehind.lag", this, store -> store.lagNanos() / 1e9)
+            .description("Age of the oldest unflushed change")
+            .baseUnit("seconds")
+            .register(registry);
+        flushTimer = Timer.builder("tasks.writebehind.flush")
+            .description("Time to write one batch to the durable store")
+            .register(registry);
+    }
+
+    @Override
+    public Task get(int id) {
+        return memory.get(id);
+    }
+
+    @Override
+    public void put(Task task) {
+        enqueue(task.getId(), previous -> {
+            memory.put(task);
+            return new Mutation(task, previous);
+        });
+    }
+
+    @Override
+    public boolean replace(int expectedVersion, Task updated) {
+        boolean[] replaced = new boolean[1];
+        enqueue(updated.getId(), previous -> {
+            replaced[0] = memory.replace(expectedVersion, updated);
+            return replaced[0] ? new Mutation(updated, previous) : previous;
+        });
+        return replaced[0];
+    }
+
+    @Override
+    public Task remove(int id) {
+        Task[] removed = new Task[1];
+        enqueue(id, previous -> {
+            removed[0] = memory.remove(id);
+            return removed[0] != null ? new Mutation(null, previous) : previous;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public int size() {
+        return memory.size();
+    }
+
+    @Override
+    public ModificationStamp modifications() {
+        return memory.modifications();
+    }
+
+    @Override
+    public int lastId() {
+        return memory.lastId();
+    }
+
+    @Override
+    public Iterator<Task> ascending(int afterId) {
+        return memory.ascending(afterId);
+    }
+
+    @Override
+    public Iterator<Task> descending(int beforeId) {
+        return memory.descending(beforeId);
+    }
+
+    @Override
+    public long approximateMemoryBytes() {
+        return memory.approximateMemoryBytes();
+    }
+
+    /**
+     * Nanoseconds since the oldest change still waiting for a flush was made, or 0 when caught up.
+     */
+    public long lagNanos() {
+        long now = System.nanoTime();
+        long oldest = now;
+        for (Mutation mutation : pending.values()) {
+            oldest = Math.min(oldest, mutation.dirtySince);
+        }
+        return now - oldest;
+    }
+
+    /**
+     * Stops the flusher and writes everything still pending.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("{} task changes could not be written to the durable store on shutdown", pending.size());
+        }
+    }
+
+    /**
+     * Applies a change to memory and records it as pending, atomically per task ID.
+     *
+     * A change to a task that is already pending merges into its entry and needs no room; only
+     * a task becoming pending takes a permit, so permits track distinct pending tasks.
+     */
+    private void enqueue(int id, UnaryOperator<Mutation> change) {
+        if (pending.computeIfPresent(id, (key, previous) -> change.apply(previous)) == null) {
+            acquirePermit();
+            Mutation[] before = new Mutation[1];
+            Mutation after = pending.compute(id, (key, previous) -> {
+                before[0] = previous;
+                return change.apply(previous);
+            });
+            if (before[0] != null || after == null) {
+                // Raced with another writer for this task, or the change was a no-op
+                capacity.release();
+            }
+        }
+        if (pending.size() >= batchSize && !flusher.isShutdown() && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!capacity.tryAcquire(offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("Write-behind queue full: durable store is falling behind");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write-behind queue", e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush failed, retrying on the next cycle", e);
+        }
+    }
+
+    /**
+     * Drains the pending map in batches. Runs on the flusher thread, or on the closing thread once
+     * the flusher has stopped, so batches are never written concurrently or out of order.
+     */
+    private void flush() {
+        Map<Integer, Mutation> batch = new HashMap<>();
+        for (Integer id : pending.keySet()) {
+            Mutation mutation = pending.remove(id);
+            if (mutation != null) {
+                batch.put(id, mutation);
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch = new HashMap<>();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(Map<Integer, Mutation> batch) {
+        List<Task> puts = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        for (Map.Entry<Integer, Mutation> entry : batch.entrySet()) {
+            if (entry.getValue().task == null) {
+                deletes.add(entry.getKey());
+            } else {
+                puts.add(entry.getValue().task);
+            }
+        }
+        try {
+            flushTimer.record(() -> {
+                durable.putAll(puts);
+                durable.removeAll(deletes);
+            });
+            capacity.release(batch.size());
+        } catch (RuntimeException e) {
+            // Put the batch back unless the task changed again meanwhile; the newer change wins
+            for (Map.Entry<Integer, Mutation> entry : batch.entrySet()) {
+                if (pending.putIfAbsent(entry.getKey(), entry.getValue()) != null) {
+                    capacity.release();
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void load() {
+        List<Task> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+        Iterator<Task> stored = durable.ascending(0);
+        while (stored.hasNext()) {
+            chunk.add(stored.next());
+            if (chunk.size() == LOAD_CHUNK_SIZE) {
+                memory.putAll(chunk);
+                chunk.clear();
+            }
+        }
+        memory.putAll(chunk);
+    }
+
+    /**
+     * Latest state of one task waiting to be flushed: the task, or {@code null} for a delete.
+     */
+    private static final class Mutation {
+        final Task task;
+        final long dirtySince;
+
+        Mutation(Task task, Mutation previous) {
+            this.task = task;
+            // A coalesced change has been unflushed since the first change it replaced
+            this.dirtySince = previous == null ? System.nanoTime() : previous.dirtySince;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process counter for the in-memory stores, seeded from the highest stored ID on startup.
+ * A batch reserves one consecutive range with a single atomic add.
+ */
+public class CounterIdAllocator implements TaskIdAllocator {
+
+    private final AtomicInteger counter;
+
+    public CounterIdAllocator(int firstId) {
+        this.counter = new AtomicInteger(firstId);
+    }
+
+    @Override
+    public int next() {
+        return counter.getAndIncrement();
+    }
+
+    @Override
+    public void next(int[] ids) {
+        int first = counter.getAndAdd(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = first + i;
+        }
+    }
+}
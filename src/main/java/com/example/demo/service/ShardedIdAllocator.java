@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+/**
+ * Allocator for one node of a sharded cluster: draws IDs from {@code delegate} and keeps only
+ * those the ring assigns to this node, so every task is created on the node that owns it.
+ *
+ * An ID has exactly one owner and only the owner ever keeps it, so nodes hand out disjoint IDs
+ * without coordinating. Each node discards the IDs it does not own, about
+ * {@code (nodeCount - 1) / nodeCount} of its draws, which is a hash and a branch each.
+ * The cluster's membership must not change while it holds data: a new ring would give
+ * existing IDs new owners that may allocate them again.
+ */
+public class ShardedIdAllocator implements TaskIdAllocator {
+
+    private final TaskIdAllocator delegate;
+    private final TaskShardRing ring;
+    private final int nodeId;
+
+    public ShardedIdAllocator(TaskIdAllocator delegate, TaskShardRing ring, int nodeId) {
+        if (nodeId < 0 || nodeId >= ring.nodeCount()) {
+            throw new IllegalArgumentException("Node ID must be between 0 and node count - 1");
+        }
+        this.delegate = delegate;
+        this.ring = ring;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public int next() {
+        while (true) {
+            int id = delegate.next();
+            if (ring.ownerOf(id) == nodeId) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Draws in batches sized for the expected share of owned IDs.
+     */
+    @Override
+    public void next(int[] ids) {
+        if (ids.length == 0) {
+            return;
+        }
+        int[] drawn = new int[Math.min(ids.length * ring.nodeCount() + 8, 1 << 16)];
+        int filled = 0;
+        while (filled < ids.length) {
+            delegate.next(drawn);
+            for (int i = 0; i < drawn.length && filled < ids.length; i++) {
+                if (ring.ownerOf(drawn[i]) == nodeId) {
+                    ids[filled++] = drawn[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Allocator that keeps concurrent writers off a single shared counter.
+ *
+ * IDs are claimed from the shared counter in blocks of {@code blockSize}. Each block lives in
+ * one of a power-of-two number of stripes (about one per core, each on its own cache line)
+ * and threads hash to a stripe by thread ID, so most allocations are an uncontended CAS on a
+ * stripe-local word and the shared counter is touched once per block. Hashing by thread rather
+ * than holding a block per thread keeps this cheap for short-lived virtual threads.
+ *
+ * IDs stay unique but are no longer in creation order across threads, and blocks still
+ * partly unused at shutdown leave gaps. "Latest tasks" ordering is therefore approximate.
+ *
+ * For a cluster, node {@code nodeId} of {@code nodeCount} maps its sequence {@code s} to
+ * {@code s * nodeCount + nodeId + 1}, so nodes allocate disjoint IDs without coordination and
+ * IDs remain plain {@code int}s that every store can index.
+ */
+public class StripedIdAllocator implements TaskIdAllocator {
+
+    // One stripe per 64-byte line: 8 longs, only the first used
+    private static final int PADDING_SHIFT = 3;
+
+    private final AtomicInteger sequence;
+    private final AtomicLongArray blocks;
+    private final int stripeMask;
+    private final int blockSize;
+    private final int nodeId;
+    private final int nodeCount;
+
+    /**
+     * Single node, IDs continuing after {@code lastId}.
+     */
+    public StripedIdAllocator(int lastId, int blockSize) {
+        this(lastId, blockSize, 0, 1);
+    }
+
+    /**
+     * @param lastId highest ID already stored; allocation continues above it
+     * @param nodeId this node's index, {@code 0 <= nodeId < nodeCount}
+     */
+    public StripedIdAllocator(int lastId, int blockSize, int nodeId, int nodeCount) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1");
+        }
+        if (nodeCount < 1 || nodeId < 0 || nodeId >= nodeCount) {
+            throw new IllegalArgumentException("Node ID must be between 0 and node count - 1");
+        }
+        this.blockSize = blockSize;
+        this.nodeId = nodeId;
+        this.nodeCount = nodeCount;
+        // First sequence whose ID lies above lastId
+        this.sequence = new AtomicInteger(Math.floorDiv(lastId - nodeId - 1, nodeCount) + 1);
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.stripeMask = stripes - 1;
+        this.blocks = new AtomicLongArray(stripes << PADDING_SHIFT);
+    }
+
+    @Override
+    public int next() {
+        int slot = stripe() << PADDING_SHIFT;
+        while (true) {
+            long block = blocks.get(slot);
+            int next = (int) (block >>> 32);
+            int end = (int) block;
+            if (next < end) {
+                if (blocks.compareAndSet(slot, block, pack(next + 1, end))) {
+                    return toId(next);
+                }
+                continue;
+            }
+            int start = claim(blockSize);
+            // Keep the first ID; if another thread refilled the stripe meanwhile, the rest is a gap
+            blocks.compareAndSet(slot, block, pack(start + 1, start + blockSize));
+            return toId(start);
+        }
+    }
+
+    /**
+     * A batch is already one shared-counter add, so it bypasses the stripes.
+     */
+    @Override
+    public void next(int[] ids) {
+        int start = claim(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = toId(start + i);
+        }
+    }
+
+    private int claim(int count) {
+        int start = sequence.getAndAdd(count);
+        if (start < 0 || start > Integer.MAX_VALUE - count) {
+            throw new IllegalStateException("Task IDs exhausted");
+        }
+        return start;
+    }
+
+    private int toId(int seq) {
+        long id = (long) seq * nodeCount + nodeId + 1;
+        if (id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Task IDs exhausted");
+        }
+        return (int) id;
+    }
+
+    private int stripe() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & stripeMask;
+    }
+
+    private static long pack(int next, int end) {
+        return ((long) next << 32) | (end & 0xFFFFFFFFL);
+    }
+}
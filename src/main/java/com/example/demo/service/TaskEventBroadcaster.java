@@ -0,0 +1,267 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fans the TaskEventLog out to any number of subscribers without a thread per subscriber.
+ *
+ * One dispatcher thread sleeps until something is published, then hands every subscriber that
+ * is behind to a fixed pool of {@code sendThreads}. A subscriber is queued at most once at a
+ * time and sends everything it is missing in batches, so a burst of mutations costs each
+ * subscriber one wake-up and the pool queue never holds more than one entry per subscriber.
+ * Idle subscribers get a heartbeat every {@code heartbeat}, which also uncovers dead clients.
+ *
+ * Subscribers read the shared log at their own cursor and buffer nothing themselves. One that
+ * falls more than the log's capacity behind receives a reset and is disconnected; it reconnects
+ * with its last event ID, is told to reset again, and resynchronises from {@code GET /tasks}.
+ * A client that stops reading entirely holds one send thread until the server's write timeout
+ * fails the write.
+ */
+public class TaskEventBroadcaster implements Closeable {
+
+    private static final int SEND_BATCH_SIZE = 256;
+
+    /**
+     * Transport-specific end of one subscription. Calls come from one send thread at a time.
+     */
+    public interface Sink {
+
+        /**
+         * How many events the client can take now; 0 pauses delivery until {@link Subscription#wake}.
+         */
+        default long demand() {
+            return Long.MAX_VALUE;
+        }
+
+        void send(List<TaskEvent> events) throws Exception;
+
+        void heartbeat() throws Exception;
+
+        /**
+         * Tells the client that events were lost and it must reload its state, then resume
+         * after {@code resumeId}.
+         */
+        void reset(String resumeId) throws Exception;
+
+        void close();
+    }
+
+    /**
+     * Handle returned by {@link #subscribe}.
+     */
+    public final class Subscription {
+        private final Sink sink;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile long cursor;
+        private volatile boolean resetPending;
+        private volatile long lastSentNanos = System.nanoTime();
+
+        private Subscription(Sink sink, long cursor, boolean resetPending) {
+            this.sink = sink;
+            this.cursor = cursor;
+            this.resetPending = resetPending;
+        }
+
+        /**
+         * Resumes delivery after the sink's demand went up.
+         */
+        public void wake() {
+            schedule(this);
+        }
+
+        /**
+         * Stops delivery; the sink is not closed, as the transport is already going away.
+         */
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+    }
+
+    private final TaskEventLog log;
+    private final long heartbeatNanos;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sendPool;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+    private Counter overflows;
+
+    public TaskEventBroadcaster(TaskEventLog log, int sendThreads, Duration heartbeat) {
+        this.log = log;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.overflows = Counter.builder("tasks.events.overflows").register(new CompositeMeterRegistry());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sendPool = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-events-send-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "task-events-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.onPublish(() -> LockSupport.unpark(dispatcher));
+    }
+
+    /**
+     * Registers the number of subscribers and how many were cut off for falling behind.
+     */
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.events.subscribers", subscriptions, Set::size)
+            .description("Open task event streams")
+            .register(registry);
+        overflows = Counter.builder("tasks.events.overflows")
+            .description("Event streams disconnected for falling behind the event log")
+            .register(registry);
+    }
+
+    /**
+     * Starts delivering events after {@code lastEventId}, or only new events if it is null.
+     * An ID this log cannot resume from (too old, or from before a restart) gets a reset first.
+     */
+    public Subscription subscribe(String lastEventId, Sink sink) {
+        long last = log.lastSequence();
+        long resumeFrom = lastEventId == null ? last : log.sequenceOf(lastEventId);
+        boolean resumable = resumeFrom >= 0 && last - resumeFrom <= log.capacity();
+        Subscription subscription = new Subscription(sink, resumable ? resumeFrom : last, !resumable);
+        subscriptions.add(subscription);
+        schedule(subscription);
+        return subscription;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    public String eventId(TaskEvent event) {
+        return log.eventId(event.getSequence());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        sendPool.shutdown();
+        try {
+            sendPool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        subscriptions.forEach(this::disconnect);
+    }
+
+    private void dispatch() {
+        while (running) {
+            long last = log.lastSequence();
+            long now = System.nanoTime();
+            for (Subscription subscription : subscriptions) {
+                if (subscription.cursor < last || subscription.resetPending
+                        || now - subscription.lastSentNanos >= heartbeatNanos) {
+                    schedule(subscription);
+                }
+            }
+            // Returns at once if something was published during the pass
+            LockSupport.parkNanos(this, heartbeatNanos / 2);
+        }
+    }
+
+    private void schedule(Subscription subscription) {
+        if (!subscription.cancelled && subscription.scheduled.compareAndSet(false, true)) {
+            try {
+                sendPool.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        boolean progressed;
+        do {
+            progressed = deliver(subscription);
+            subscription.scheduled.set(false);
+            // A publish while we were sending found us still scheduled; pick it up here
+        } while (progressed && !subscription.cancelled && subscription.cursor < log.lastSequence()
+            && subscription.scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * @return whether any events were sent
+     */
+    private boolean deliver(Subscription subscription) {
+        if (subscription.cancelled) {
+            return false;
+        }
+        Sink sink = subscription.sink;
+        try {
+            if (subscription.resetPending) {
+                sink.reset(log.eventId(subscription.cursor));
+                subscription.resetPending = false;
+                subscription.lastSentNanos = System.nanoTime();
+            }
+            long demand = sink.demand();
+            if (demand <= 0) {
+                // A paused client is cut off once it could no longer resume
+                if (log.lastSequence() - subscription.cursor > log.capacity()) {
+                    overflow(subscription);
+                }
+                return false;
+            }
+            List<TaskEvent> events = log.readAfter(subscription.cursor, (int) Math.min(SEND_BATCH_SIZE, demand));
+            if (events == null) {
+                overflow(subscription);
+                return false;
+            }
+            if (events.isEmpty()) {
+                if (System.nanoTime() - subscription.lastSentNanos >= heartbeatNanos) {
+                    sink.heartbeat();
+                    subscription.lastSentNanos = System.nanoTime();
+                }
+                return false;
+            }
+            List<TaskEvent> current = events.stream().filter(event -> !event.isSuperseded()).toList();
+            if (!current.isEmpty()) {
+                sink.send(current);
+            }
+            subscription.cursor = events.get(events.size() - 1).getSequence();
+            subscription.lastSentNanos = System.nanoTime();
+            return true;
+        } catch (Exception e) {
+            // The client went away or the connection broke
+            disconnect(subscription);
+            return false;
+        }
+    }
+
+    private void overflow(Subscription subscription) throws Exception {
+        overflows.increment();
+        subscription.sink.reset(log.eventId(log.lastSequence()));
+        disconnect(subscription);
+    }
+
+    private void disconnect(Subscription subscription) {
+        subscription.cancel();
+        try {
+            subscription.sink.close();
+        } catch (RuntimeException e) {
+            // Already closed by the transport
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring of the most recent task mutations, written by TaskService and read by
+ * TaskEventBroadcaster.
+ *
+ * A writer claims the next sequence number with one atomic increment and stores its event in
+ * slot {@code sequence % capacity}, overwriting the event {@code capacity} mutations older, so
+ * publishing never blocks and memory stays fixed however far readers fall behind. Readers keep
+ * their own cursor and detect that they were lapped from the sequence stored in the slot.
+ *
+ * Writers publish without locking, so a slower writer can claim a later sequence for an older
+ * change of the same task. A second table, indexed like the ring, keeps the latest event
+ * published for each task; before storing, a writer compares its event with that one and marks
+ * whichever of the two has the lower revision but the higher sequence as superseded. The mark
+ * is set before the newer-sequenced event is stored, and readers never pass an unstored slot,
+ * so it is in place before any reader reaches the stale event. The table is direct-mapped by
+ * ID, so it relies on no other task landing in the same slot between two racing publishes.
+ *
+ * Event IDs are {@code <epoch>-<sequence>} with the epoch of this log in base 36, like the list
+ * ETag, so an ID from before a restart is recognised as unknown instead of being resumed.
+ */
+public class TaskEventLog {
+
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicReferenceArray<TaskEvent> slots;
+    private final AtomicReferenceArray<TaskEvent> latest;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Runnable listener = () -> {};
+
+    /**
+     * @param capacity number of events retained, a power of two
+     */
+    public TaskEventLog(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event log capacity must be a power of two");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.latest = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void created(Task task) {
+        long seq = sequence.incrementAndGet();
+        store(new TaskEvent(seq, TaskEvent.Type.CREATED, task));
+    }
+
+    void updated(Task task) {
+        long seq = sequence.incrementAndGet();
+        store(new TaskEvent(seq, TaskEvent.Type.UPDATED, task));
+    }
+
+    /**
+     * @param removed the task as the store removed it
+     */
+    void deleted(Task removed) {
+        long seq = sequence.incrementAndGet();
+        store(new TaskEvent(seq, removed));
+    }
+
+    /**
+     * Publishes a change applied by a follower's replication thread, which has no concurrent
+     * writers to be ordered against. The event is never superseded, since after a leader restart
+     * versions start over and a task may legitimately come back at a lower revision.
+     *
+     * @param task the task written, or as it was removed for {@code DELETED}
+     */
+    void replicated(TaskEvent.Type type, Task task) {
+        long seq = sequence.incrementAndGet();
+        TaskEvent event = type == TaskEvent.Type.DELETED ? new TaskEvent(seq, task) : new TaskEvent(seq, type, task);
+        latest.set(task.getId() & mask, event);
+        slots.set((int) seq & mask, event);
+        listener.run();
+    }
+
+    private void store(TaskEvent event) {
+        order(event);
+        slots.set((int) event.getSequence() & mask, event);
+        listener.run();
+    }
+
+    private void order(TaskEvent event) {
+        int slot = event.getId() & mask;
+        while (true) {
+            TaskEvent previous = latest.get(slot);
+            if (previous != null && previous.getId() == event.getId()) {
+                if (previous.getRevision() >= event.getRevision()) {
+                    if (previous.getSequence() < event.getSequence()) {
+                        event.supersede();
+                    }
+                    return;
+                }
+                if (previous.getSequence() > event.getSequence()) {
+                    previous.supersede();
+                }
+            }
+            if (latest.compareAndSet(slot, previous, event)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs after every publish, on the publishing thread; must not block. Listeners added
+     * later run after earlier ones.
+     */
+    public synchronized void onPublish(Runnable listener) {
+        Runnable previous = this.listener;
+        this.listener = () -> {
+            previous.run();
+            listener.run();
+        };
+    }
+
+    /**
+     * Sequence of the latest claimed event; 0 before the first.
+     */
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Up to {@code max} events following sequence {@code after}, in order. Stops early at an event
+     * whose writer has claimed its sequence but not stored it yet. Superseded events are included
+     * so cursors can move past them; readers do not deliver them.
+     *
+     * @return the events, or null if some following {@code after} have already been overwritten
+     */
+    public List<TaskEvent> readAfter(long after, int max) {
+        long last = sequence.get();
+        if (last - after > capacity()) {
+            return null;
+        }
+        int count = (int) Math.min(max, last - after);
+        List<TaskEvent> events = new ArrayList<>(Math.max(count, 0));
+        for (long seq = after + 1; seq <= after + count; seq++) {
+            TaskEvent event = slots.get((int) seq & mask);
+            if (event == null || event.getSequence() < seq) {
+                break;
+            }
+            if (event.getSequence() > seq) {
+                return null;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * The epoch part of event IDs, new with every log.
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * @return the sequence an event ID from this log refers to, or -1 for an ID it did not issue
+     */
+    public long sequenceOf(String eventId) {
+        int dash = eventId.indexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            long seq = Long.parseLong(eventId.substring(dash + 1));
+            return seq >= 0 && seq <= sequence.get() ? seq : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+/**
+ * Hands out IDs for new tasks. Implementations must be thread-safe.
+ */
+public interface TaskIdAllocator {
+
+    int next();
+
+    /**
+     * Fills {@code ids} with new IDs in one go; they are unique but need not be consecutive.
+     */
+    default void next(int[] ids) {
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = next();
+        }
+    }
+}
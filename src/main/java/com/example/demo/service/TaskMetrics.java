@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.TaskStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for TaskService, created once so the hot path only records.
+ *
+ * Timers carry no client-side percentiles; enable Prometheus histogram buckets with
+ * {@code management.metrics.distribution.percentiles-histogram.tasks.operations=true}.
+ */
+class TaskMetrics {
+
+    static final String OPERATIONS = "tasks.operations";
+
+    final Timer add;
+    final Timer addBatch;
+    final Timer list;
+    final Timer page;
+    final Timer range;
+    final Timer latest;
+    final Timer get;
+    final Timer update;
+    final Timer updateBatch;
+    final Timer delete;
+    final Timer deleteBatch;
+    final Timer search;
+    final Counter sanitizerRejections;
+
+    TaskMetrics(MeterRegistry registry, TaskStore store) {
+        add = timer(registry, "add");
+        addBatch = timer(registry, "add_batch");
+        list = timer(registry, "list");
+        page = timer(registry, "page");
+        range = timer(registry, "range");
+        latest = timer(registry, "latest");
+        get = timer(registry, "get");
+        update = timer(registry, "update");
+        updateBatch = timer(registry, "update_batch");
+        delete = timer(registry, "delete");
+        deleteBatch = timer(registry, "delete_batch");
+        search = timer(registry, "search");
+        sanitizerRejections = Counter.builder("tasks.sanitizer.rejections")
+            .description("Task names rejected by validation or sanitization")
+            .register(registry);
+        Gauge.builder("tasks.store.size", store, TaskStore::size)
+            .description("Tasks currently held by the store")
+            .register(registry);
+        Gauge.builder("tasks.store.memory", store, TaskStore::approximateMemoryBytes)
+            .description("Approximate memory held by the store, heap and mapped")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation) {
+        return Timer.builder(OPERATIONS)
+            .description("TaskService operation latency")
+            .tag("operation", operation)
+            .register(registry);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+/**
+ * Validates and sanitizes task names in a single pass over the characters.
+ *
+ * Produces exactly what the original regex pipeline did: trim, strip {@code <...>} tags,
+ * replace each of {@code < > " ' & ;} with {@code _}, and reject names that end up blank.
+ * A name that needs no changes is returned as-is without allocating.
+ */
+public final class TaskNameSanitizer {
+
+    public static final int MAX_TASK_NAME_LENGTH = 255;
+
+    private TaskNameSanitizer() {
+    }
+
+    public static String sanitize(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Task name cannot be null");
+        }
+
+        // Same bounds as String.trim(), without creating the trimmed copy yet
+        int start = 0;
+        int end = name.length();
+        while (start < end && name.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && name.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new IllegalArgumentException("Task name cannot be empty");
+        }
+        if (end - start > MAX_TASK_NAME_LENGTH) {
+            throw new IllegalArgumentException("Task name too long (max " + MAX_TASK_NAME_LENGTH + " chars)");
+        }
+
+        int firstDangerous = -1;
+        int lastTagEnd = -1;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (isDangerous(c)) {
+                if (firstDangerous < 0) {
+                    firstDangerous = i;
+                }
+                if (c == '>') {
+                    lastTagEnd = i;
+                }
+            }
+        }
+        if (firstDangerous < 0) {
+            // Trimmed bounds start and end on visible characters, so the result cannot be blank
+            return name.substring(start, end);
+        }
+
+        char[] out = new char[end - start];
+        name.getChars(start, firstDangerous, out, 0);
+        int length = firstDangerous - start;
+        boolean visible = length > 0; // a non-empty clean prefix begins with a visible character
+        for (int i = firstDangerous; i < end; i++) {
+            char c = name.charAt(i);
+            if (c == '<' && i < lastTagEnd) {
+                // A '<' with a '>' somewhere after it opens a tag that runs to the next '>'
+                i = name.indexOf('>', i + 1);
+            } else if (isDangerous(c)) {
+                out[length++] = '_';
+                visible = true;
+            } else {
+                out[length++] = c;
+                visible |= c > ' ';
+            }
+        }
+        if (!visible) {
+            throw new IllegalArgumentException("Task name contains only invalid characters");
+        }
+        return new String(out, 0, length);
+    }
+
+    private static boolean isDangerous(char c) {
+        return c == '<' || c == '>' || c == '"' || c == '\'' || c == '&' || c == ';';
+    }
+}
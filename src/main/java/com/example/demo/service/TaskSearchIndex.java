@@ -0,0 +1,316 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Task;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from name tokens to task IDs, maintained by TaskService.
+ *
+ * Names are split on anything that is not a letter or digit and lower-cased. Each token maps
+ * to a compressed bitmap of IDs (RoaringBitmap), so a token shared by millions of tasks costs
+ * a few bits per task and intersections run over whole containers at a time. Terms are kept
+ * sorted, so a prefix is a contiguous range of terms.
+ *
+ * A query matches tasks containing every query token; the last token also matches as a prefix
+ * unless the query ends in whitespace, for search-as-you-type. Tasks matching all tokens
+ * exactly rank first, then prefix matches, newest first within each group. Pages are cut by
+ * rank with {@link RoaringBitmap#select}, so deep offsets do not walk earlier results.
+ *
+ * Per task it keeps only what re-indexing and removal need, in primitive columns probed like
+ * PrimitiveTaskStore: the version indexed and the IDs of its terms. No
+ * name or Task is held, so the index costs a few ints per task plus the postings.
+ *
+ * Opt-in ({@code task.search.enabled}): building it reads every task once at startup.
+ */
+public class TaskSearchIndex {
+
+    private static final int FREE = 0;
+    private static final double MAX_LOAD = 0.6;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Term> postings = new TreeMap<>();
+    // Terms by ID, so removal goes from an indexed task's term IDs to their postings
+    private final List<Term> terms = new ArrayList<>();
+    private int[] freeTermIds = new int[16];
+    private int freeTermCount;
+    // What each ID was indexed as, so removal does not need the old name and stale versions are ignored
+    private int[] ids = new int[16];
+    private int[] versions = new int[16];
+    private int[][] termIds = new int[16][];
+    private int size;
+
+    /**
+     * A token, its ID and the tasks containing it.
+     */
+    private static final class Term {
+        final String text;
+        final int id;
+        final RoaringBitmap ids = new RoaringBitmap();
+
+        Term(String text, int id) {
+            this.text = text;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Matching task IDs for one page, best first, and how many tasks match in total.
+     */
+    public static final class Hits {
+        private final int[] ids;
+        private final int total;
+
+        Hits(int[] ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public int[] getIds() {
+            return ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Indexes the task, replacing an older version of it; an older version than the one indexed
+     * is ignored.
+     */
+    public void put(Task task) {
+        lock.writeLock().lock();
+        try {
+            index(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Iterator<Task> tasks) {
+        lock.writeLock().lock();
+        try {
+            tasks.forEachRemaining(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the query has no letters or digits
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain letters or digits");
+        }
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+        String last = tokens.remove(tokens.size() - 1);
+
+        RoaringBitmap exact;
+        RoaringBitmap prefixOnly;
+        lock.readLock().lock();
+        try {
+            RoaringBitmap leading = null;
+            for (String token : tokens) {
+                Term term = postings.get(token);
+                if (term == null) {
+                    return new Hits(new int[0], 0);
+                }
+                leading = leading == null ? term.ids.clone() : RoaringBitmap.and(leading, term.ids);
+            }
+            Term lastTerm = postings.get(last);
+            exact = restrict(lastTerm == null ? null : lastTerm.ids, leading);
+            prefixOnly = prefixLast
+                ? RoaringBitmap.andNot(restrict(prefixUnion(last), leading), exact)
+                : new RoaringBitmap();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int exactCount = exact.getCardinality();
+        int total = exactCount + prefixOnly.getCardinality();
+        int end = (int) Math.min(total, (long) offset + limit);
+        int[] page = new int[Math.max(0, end - offset)];
+        for (int rank = offset; rank < end; rank++) {
+            // Newest first: rank 0 is the highest ID of its group
+            page[rank - offset] = rank < exactCount
+                ? exact.select(exactCount - 1 - rank)
+                : prefixOnly.select(total - 1 - rank);
+        }
+        return new Hits(page, total);
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void index(Task task) {
+        int id = task.getId();
+        if (id == FREE) {
+            throw new IllegalArgumentException("ID " + FREE + " is reserved");
+        }
+        int slot = slotOf(ids, id);
+        if (ids[slot] == id) {
+            if (versions[slot] >= task.getVersion()) {
+                return;
+            }
+            release(slot);
+        } else {
+            if (size + 1 > ids.length * MAX_LOAD) {
+                resize();
+                slot = slotOf(ids, id);
+            }
+            ids[slot] = id;
+            size++;
+        }
+        Set<String> tokens = tokenize(task.getName());
+        int[] taskTerms = new int[tokens.size()];
+        int i = 0;
+        for (String token : tokens) {
+            Term term = postings.computeIfAbsent(token, this::newTerm);
+            term.ids.add(id);
+            taskTerms[i++] = term.id;
+        }
+        versions[slot] = task.getVersion();
+        termIds[slot] = taskTerms;
+    }
+
+    private void unindex(int id) {
+        int mask = ids.length - 1;
+        int gap = slotOf(ids, id);
+        if (ids[gap] == FREE) {
+            return;
+        }
+        release(gap);
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        for (int i = (gap + 1) & mask; ids[i] != FREE; i = (i + 1) & mask) {
+            int home = hash(ids[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                ids[gap] = ids[i];
+                versions[gap] = versions[i];
+                termIds[gap] = termIds[i];
+                gap = i;
+            }
+        }
+        ids[gap] = FREE;
+        versions[gap] = 0;
+        termIds[gap] = null;
+        size--;
+    }
+
+    /**
+     * Takes the task in {@code slot} out of its postings, keeping the slot.
+     */
+    private void release(int slot) {
+        for (int termId : termIds[slot]) {
+            Term term = terms.get(termId);
+            term.ids.remove(ids[slot]);
+            if (term.ids.isEmpty()) {
+                postings.remove(term.text);
+                terms.set(termId, null);
+                if (freeTermCount == freeTermIds.length) {
+                    freeTermIds = Arrays.copyOf(freeTermIds, freeTermCount << 1);
+                }
+                freeTermIds[freeTermCount++] = termId;
+            }
+        }
+    }
+
+    private Term newTerm(String text) {
+        if (freeTermCount > 0) {
+            Term term = new Term(text, freeTermIds[--freeTermCount]);
+            terms.set(term.id, term);
+            return term;
+        }
+        Term term = new Term(text, terms.size());
+        terms.add(term);
+        return term;
+    }
+
+    private void resize() {
+        int[] oldIds = ids;
+        int[] newIds = new int[oldIds.length << 1];
+        int[] newVersions = new int[newIds.length];
+        int[][] newTermIds = new int[newIds.length][];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != FREE) {
+                int slot = slotOf(newIds, oldIds[i]);
+                newIds[slot] = oldIds[i];
+                newVersions[slot] = versions[i];
+                newTermIds[slot] = termIds[i];
+            }
+        }
+        ids = newIds;
+        versions = newVersions;
+        termIds = newTermIds;
+    }
+
+    private static int slotOf(int[] table, int id) {
+        int mask = table.length - 1;
+        int slot = hash(id) & mask;
+        while (table[slot] != FREE && table[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private RoaringBitmap prefixUnion(String prefix) {
+        // Every term in [prefix, prefix + U+FFFF) starts with prefix
+        return FastAggregation.or(postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+            .values().stream().map(term -> term.ids).iterator());
+    }
+
+    private static RoaringBitmap restrict(RoaringBitmap ids, RoaringBitmap leading) {
+        if (ids == null) {
+            return new RoaringBitmap();
+        }
+        return leading == null ? ids.clone() : RoaringBitmap.and(ids, leading);
+    }
+}
@@ -1,95 +1,585 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.dto.TaskSearchPage;
+import com.example.demo.dto.TaskStats;
+import com.example.demo.dto.TaskUpdateRequest;
+import com.example.demo.exception.TaskVersionConflictException;
 import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.ModificationStamp;
+import com.example.demo.repository.TaskStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class TaskService {
+
+    /**
+     * Expected version for an unconditional update.
+     */
+    public static final int ANY_VERSION = -1;
     
-    private final Map<Integer, Task> taskStore = new ConcurrentHashMap<>();
-    private final AtomicInteger counter = new AtomicInteger(1);
+    private final TaskStore taskStore;
+    private final TaskIdAllocator idAllocator;
+    private final TaskMetrics metrics;
+    private final TaskSearchIndex searchIndex;
+    private final TaskEventLog events;
+    private final TaskStatistics statistics;
     
-    private static final int MAX_TASK_NAME_LENGTH = 255;
     private static final int MIN_VALID_ID = 1;
-    private static final Pattern DANGEROUS_PATTERN = Pattern.compile("[<>\"'&;]");
-    private static final Pattern HTML_TAG_PATTERN = Pattern.compile("<[^>]*>");
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // Bumped by every delete between the store write and unindexing, so a writer that indexed
+    // meanwhile knows to check the store again
+    private final AtomicLong deletions = new AtomicLong();
+    private volatile String leaderEpoch;
+
+    public TaskService() {
+        this(new ConcurrentTaskStore());
+    }
+
+    /**
+     * Unmetered service; an empty composite registry hands out no-op meters.
+     */
+    public TaskService(TaskStore taskStore) {
+        this(taskStore, new CompositeMeterRegistry());
+    }
+
+    public TaskService(TaskStore taskStore, MeterRegistry meterRegistry) {
+        this(taskStore, new CounterIdAllocator(taskStore.lastId() + 1), meterRegistry);
+    }
+
+    public TaskService(TaskStore taskStore, TaskIdAllocator idAllocator, MeterRegistry meterRegistry) {
+        this(taskStore, idAllocator, meterRegistry, new TaskEventLog(TaskEventLog.DEFAULT_CAPACITY));
+    }
+
+    public TaskService(TaskStore taskStore, TaskIdAllocator idAllocator, MeterRegistry meterRegistry,
+                       TaskEventLog events) {
+        this(taskStore, idAllocator, meterRegistry, events, null);
+    }
+
+    /**
+     * Unmetered service with name search.
+     */
+    public TaskService(TaskStore taskStore, TaskSearchIndex searchIndex) {
+        this(taskStore, new CounterIdAllocator(taskStore.lastId() + 1), new CompositeMeterRegistry(),
+            new TaskEventLog(TaskEventLog.DEFAULT_CAPACITY), searchIndex);
+    }
+
+    /**
+     * @param searchIndex index to fill from the store and keep up to date, or null to leave search off
+     */
+    @Autowired
+    public TaskService(TaskStore taskStore, TaskIdAllocator idAllocator, MeterRegistry meterRegistry,
+                       TaskEventLog events, @Nullable TaskSearchIndex searchIndex) {
+        this.taskStore = taskStore;
+        this.idAllocator = idAllocator;
+        this.events = events;
+        this.metrics = new TaskMetrics(meterRegistry, taskStore);
+        this.searchIndex = searchIndex;
+        this.statistics = new TaskStatistics();
+        // One pass feeds both; a shared store keeps its own count and histogram
+        boolean countExisting = !taskStore.isShared();
+        if (countExisting || searchIndex != null) {
+            Iterator<Task> existing = taskStore.ascending(0);
+            while (existing.hasNext()) {
+                Task task = existing.next();
+                if (countExisting) {
+                    statistics.loaded(task);
+                }
+                if (searchIndex != null) {
+                    searchIndex.put(task);
+                }
+            }
+        }
+    }
 
     public Task addTask(String name) {
-        String sanitizedName = validateAndSanitizeTaskName(name);
-        Task task = new Task(counter.getAndIncrement(), sanitizedName);
-        taskStore.put(task.getId(), task);
-        return task;
+        return metrics.add.record(() -> {
+            String sanitizedName = validateAndSanitizeTaskName(name);
+            Task task = new Task(idAllocator.next(), sanitizedName);
+            long deletionsBefore = deletions.get();
+            taskStore.put(task);
+            index(task, deletionsBefore);
+            statistics.created(task);
+            events.created(task);
+            return task;
+        });
+    }
+
+    /**
+     * Creates many tasks with one validation pass, one ID allocation and one store write for the valid ones.
+     *
+     * @param firstIndex index reported for the first name, so callers can number results across chunks
+     */
+    public List<BatchItemResult> addTasks(List<String> names, int firstIndex) {
+        return metrics.addBatch.record(() -> createAll(names, firstIndex));
+    }
+
+    private List<BatchItemResult> createAll(List<String> names, int firstIndex) {
+        String[] sanitized = new String[names.size()];
+        String[] errors = new String[names.size()];
+        int valid = 0;
+        for (int i = 0; i < sanitized.length; i++) {
+            try {
+                sanitized[i] = validateAndSanitizeTaskName(names.get(i));
+                valid++;
+            } catch (IllegalArgumentException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        int[] ids = new int[valid];
+        idAllocator.next(ids);
+        int nextIdIndex = 0;
+        List<Task> created = new ArrayList<>(valid);
+        List<BatchItemResult> results = new ArrayList<>(sanitized.length);
+        for (int i = 0; i < sanitized.length; i++) {
+            if (sanitized[i] == null) {
+                results.add(BatchItemResult.failure(firstIndex + i, 400, errors[i]));
+            } else {
+                Task task = new Task(ids[nextIdIndex++], sanitized[i]);
+                created.add(task);
+                results.add(BatchItemResult.success(firstIndex + i, 201, task));
+            }
+        }
+        long deletionsBefore = deletions.get();
+        taskStore.putAll(created);
+        index(created, deletionsBefore);
+        statistics.created(created);
+        created.forEach(events::created);
+        return results;
+    }
+
+    public List<BatchItemResult> updateTasks(List<TaskUpdateRequest> updates, int firstIndex) {
+        return metrics.updateBatch.record(() -> updateAll(updates, firstIndex));
+    }
+
+    private List<BatchItemResult> updateAll(List<TaskUpdateRequest> updates, int firstIndex) {
+        List<BatchItemResult> results = new ArrayList<>(updates.size());
+        for (int i = 0; i < updates.size(); i++) {
+            TaskUpdateRequest update = updates.get(i);
+            int index = firstIndex + i;
+            try {
+                if (update == null) {
+                    throw new IllegalArgumentException("Update must not be null");
+                }
+                Task updated = updateTask(update.getId(), update.getName());
+                results.add(updated == null
+                    ? BatchItemResult.failure(index, 404, "Task with ID " + update.getId() + " not found")
+                    : BatchItemResult.success(index, 200, updated));
+            } catch (IllegalArgumentException e) {
+                results.add(BatchItemResult.failure(index, 400, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    public List<BatchItemResult> deleteTasks(List<Integer> ids, int firstIndex) {
+        return metrics.deleteBatch.record(() -> deleteAll(ids, firstIndex));
+    }
+
+    private List<BatchItemResult> deleteAll(List<Integer> ids, int firstIndex) {
+        List<Integer> validIds = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            if (id != null && id >= MIN_VALID_ID) {
+                validIds.add(id);
+            }
+        }
+        Set<Integer> removed = new HashSet<>();
+        for (Task task : taskStore.removeAll(validIds)) {
+            removed.add(task.getId());
+            publishDelete(task);
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Integer id = ids.get(i);
+            int index = firstIndex + i;
+            if (id == null || id < MIN_VALID_ID) {
+                results.add(BatchItemResult.failure(index, 400, "ID must be at least " + MIN_VALID_ID));
+            } else if (removed.remove(id)) {
+                // Removing from the set reports a repeated ID as deleted only once
+                results.add(new BatchItemResult(index, 200, null, null));
+            } else {
+                results.add(BatchItemResult.failure(index, 404, "Task with ID " + id + " not found"));
+            }
+        }
+        return results;
     }
 
     public List<Task> getTasks() {
-        return new ArrayList<>(taskStore.values());
+        return metrics.list.record(() -> {
+            List<Task> tasks = new ArrayList<>(taskStore.size());
+            taskStore.ascending(0).forEachRemaining(tasks::add);
+            return tasks;
+        });
+    }
+
+    /**
+     * Keyset page of tasks ordered by ID, starting strictly after {@code afterId}.
+     */
+    public List<Task> getTasksAfter(int afterId, int limit) {
+        return metrics.page.record(() -> collect(taskStore.ascending(afterId), Integer.MAX_VALUE, limit));
+    }
+
+    /**
+     * Tasks whose IDs fall within {@code [fromId, toId]}, in ID order, capped at {@code limit}.
+     */
+    public List<Task> getTasksInRange(int fromId, int toId, int limit) {
+        if (fromId > toId) {
+            throw new IllegalArgumentException("Range start must not be greater than range end");
+        }
+        return metrics.range.record(() -> collect(taskStore.ascending(fromId - 1), toId, limit));
+    }
+
+    /**
+     * Tasks with IDs greater than {@code afterId} and lower than {@code beforeId}, in ID order,
+     * capped at {@code limit}; empty when no ID lies between them. The bounds are worked out in
+     * long, so neither end wraps around at the int limits.
+     */
+    public List<Task> getTasksBetween(int afterId, int beforeId, int limit) {
+        validatePageLimit(limit);
+        long fromId = (long) afterId + 1;
+        long toId = (long) beforeId - 1;
+        if (fromId > toId) {
+            return List.of();
+        }
+        return getTasksInRange((int) fromId, (int) toId, limit);
+    }
+
+    /**
+     * The most recently created tasks, newest first.
+     */
+    public List<Task> getLatestTasks(int limit) {
+        return metrics.latest.record(() -> {
+            validatePageLimit(limit);
+            List<Task> result = new ArrayList<>(Math.min(limit, 64));
+            Iterator<Task> tasks = taskStore.descending(Integer.MAX_VALUE);
+            while (result.size() < limit && tasks.hasNext()) {
+                result.add(tasks.next());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Weakly consistent view over the store in ID order for streaming responses; nothing is copied.
+     */
+    public Iterator<Task> iterateTasks() {
+        return taskStore.ascending(0);
     }
 
     public Task getTaskById(int id) {
-        validateId(id);
-        return taskStore.get(id);
+        return metrics.get.record(() -> {
+            validateId(id);
+            return taskStore.get(id);
+        });
     }
 
     public Task updateTask(int id, String newName) {
-        validateId(id);
-        String sanitizedName = validateAndSanitizeTaskName(newName);
-        
-        Task task = taskStore.get(id);
-        if (task != null) {
-            task.setName(sanitizedName);
-        }
-        return task;
+        return updateTask(id, newName, ANY_VERSION);
+    }
+
+    /**
+     * Renames the task only if it is still at {@code expectedVersion}, for optimistic concurrency.
+     *
+     * Reads the current version and compare-and-sets the renamed copy, without locks. An
+     * unconditional update retries when another writer got in between; a conditional one fails.
+     * A delete racing the rename may publish first; the event log then drops the rename's event.
+     *
+     * @throws TaskVersionConflictException if the task has a different version
+     */
+    public Task updateTask(int id, String newName, int expectedVersion) {
+        return metrics.update.record(() -> {
+            validateId(id);
+            String sanitizedName = validateAndSanitizeTaskName(newName);
+
+            while (true) {
+                Task current = taskStore.get(id);
+                if (current == null) {
+                    return null;
+                }
+                if (expectedVersion != ANY_VERSION && current.getVersion() != expectedVersion) {
+                    throw new TaskVersionConflictException(id);
+                }
+                Task updated = current.withName(sanitizedName);
+                long deletionsBefore = deletions.get();
+                if (taskStore.replace(current.getVersion(), updated)) {
+                    index(updated, deletionsBefore);
+                    statistics.updated(current, updated);
+                    events.updated(updated);
+                    return updated;
+                }
+            }
+        });
     }
 
     public boolean deleteTask(int id) {
-        validateId(id);
-        return taskStore.remove(id) != null;
+        return metrics.delete.record(() -> {
+            validateId(id);
+            Task removed = taskStore.remove(id);
+            if (removed != null) {
+                publishDelete(removed);
+            }
+            return removed != null;
+        });
+    }
+
+    /**
+     * Stores a task as replicated from the leader, unless this replica already holds that
+     * version or a later one. Names were sanitized by the leader and are stored as they are.
+     * Meant for the single replication thread of a follower; local writers are not expected.
+     */
+    public void applyReplicated(int id, String name, int version) {
+        Task current = taskStore.get(id);
+        if (current != null && current.getVersion() >= version) {
+            return;
+        }
+        Task task = new Task(id, name, version);
+        long deletionsBefore = deletions.get();
+        taskStore.put(task);
+        index(task, deletionsBefore);
+        if (current == null) {
+            statistics.created(task);
+            events.replicated(TaskEvent.Type.CREATED, task);
+        } else {
+            statistics.updated(current, task);
+            events.replicated(TaskEvent.Type.UPDATED, task);
+        }
+    }
+
+    /**
+     * Stores a task from the leader's snapshot whatever version this replica holds. The snapshot
+     * is authoritative: a leader that does not keep its tasks starts over at version 1 after a
+     * restart and hands out the same IDs again, so a lower version may well be the newer task.
+     */
+    public void restoreReplicated(int id, String name, int version) {
+        Task current = taskStore.get(id);
+        if (current != null && current.getVersion() == version && current.getName().equals(name)) {
+            return;
+        }
+        Task task = new Task(id, name, version);
+        taskStore.put(task);
+        if (searchIndex != null) {
+            // The index keeps the higher version, so a lower one has to replace it explicitly
+            searchIndex.remove(id);
+            searchIndex.put(task);
+        }
+        if (current == null) {
+            statistics.created(task);
+            events.replicated(TaskEvent.Type.CREATED, task);
+        } else {
+            statistics.updated(current, task);
+            events.replicated(TaskEvent.Type.UPDATED, task);
+        }
+    }
+
+    /**
+     * Removes a task deleted on the leader; see {@link #applyReplicated}.
+     */
+    public void applyReplicatedDelete(int id) {
+        Task removed = taskStore.remove(id);
+        if (removed != null) {
+            deletions.incrementAndGet();
+            unindex(id);
+            statistics.deleted(removed);
+            events.replicated(TaskEvent.Type.DELETED, removed);
+        }
+    }
+
+    /**
+     * Tasks whose names contain every word of {@code query}, the last word also matching as a
+     * prefix. Exact matches come first, then prefix matches, newest first within each.
+     *
+     * @throws IllegalArgumentException if the query has no words or the page is out of range
+     * @throws IllegalStateException if search is disabled; see {@link #isSearchEnabled}
+     */
+    public TaskSearchPage searchTasks(String query, int offset, int limit) {
+        return metrics.search.record(() -> {
+            if (query == null) {
+                throw new IllegalArgumentException("Search query must not be null");
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("Offset must not be negative");
+            }
+            validatePageLimit(limit);
+            if (searchIndex == null) {
+                throw new IllegalStateException("Search is disabled");
+            }
+            TaskSearchIndex.Hits hits = searchIndex.search(query, offset, limit);
+            List<Task> tasks = new ArrayList<>(hits.getIds().length);
+            for (int id : hits.getIds()) {
+                Task task = taskStore.get(id);
+                // The index can briefly trail a concurrent delete
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+            return new TaskSearchPage(tasks, hits.getTotal());
+        });
     }
     
-    private String validateAndSanitizeTaskName(String name) {
-        if (name == null) {
-            throw new IllegalArgumentException("Task name cannot be null");
+    /**
+     * Whether a search index is kept ({@code task.search.enabled}).
+     */
+    public boolean isSearchEnabled() {
+        return searchIndex != null;
+    }
+
+    /**
+     * Indexes a task just written to the store. A delete of the task may have run its unindex
+     * before this put; if any delete ran since {@code deletionsBefore} (read before the store
+     * write), tasks the store no longer holds are taken out again. A delete that had not counted
+     * itself by then unindexes after this put anyway, and deleted IDs are never reused.
+     */
+    private void index(Task task, long deletionsBefore) {
+        if (searchIndex != null) {
+            searchIndex.put(task);
+            if (deletions.get() != deletionsBefore) {
+                unindexIfDeleted(task.getId());
+            }
         }
-        
-        String trimmed = name.trim();
-        if (trimmed.isEmpty()) {
-            throw new IllegalArgumentException("Task name cannot be empty");
+    }
+
+    private void index(List<Task> tasks, long deletionsBefore) {
+        if (searchIndex != null) {
+            searchIndex.putAll(tasks.iterator());
+            if (deletions.get() != deletionsBefore) {
+                tasks.forEach(task -> unindexIfDeleted(task.getId()));
+            }
         }
-        
-        if (trimmed.length() > MAX_TASK_NAME_LENGTH) {
-            throw new IllegalArgumentException("Task name too long (max " + MAX_TASK_NAME_LENGTH + " chars)");
+    }
+
+    private void unindexIfDeleted(int id) {
+        if (taskStore.get(id) == null) {
+            searchIndex.remove(id);
+        }
+    }
+
+    private void publishDelete(Task removed) {
+        deletions.incrementAndGet();
+        unindex(removed.getId());
+        statistics.deleted(removed);
+        events.deleted(removed);
+    }
+
+    private void unindex(int id) {
+        if (searchIndex != null) {
+            searchIndex.remove(id);
         }
-        
-        // Remove HTML tags and dangerous characters
-        String sanitized = HTML_TAG_PATTERN.matcher(trimmed).replaceAll("");
-        sanitized = DANGEROUS_PATTERN.matcher(sanitized).replaceAll("_");
-        
-        if (sanitized.trim().isEmpty()) {
-            throw new IllegalArgumentException("Task name contains only invalid characters");
+    }
+
+    private String validateAndSanitizeTaskName(String name) {
+        try {
+            return TaskNameSanitizer.sanitize(name);
+        } catch (IllegalArgumentException e) {
+            metrics.sanitizerRejections.increment();
+            throw e;
         }
-        
-        return sanitized;
     }
     
+    private List<Task> collect(Iterator<Task> ascending, int maxId, int limit) {
+        validatePageLimit(limit);
+        List<Task> result = new ArrayList<>(Math.min(limit, 64));
+        while (result.size() < limit && ascending.hasNext()) {
+            Task task = ascending.next();
+            if (task.getId() > maxId) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    private void validatePageLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
     private void validateId(int id) {
         if (id < MIN_VALID_ID) {
             throw new IllegalArgumentException("ID must be at least " + MIN_VALID_ID);
         }
     }
     
+    /**
+     * Maintained by every create and delete, so it costs the same whatever the store. Other
+     * processes also write a shared store, so its count comes from the store.
+     */
     public int getTaskCount() {
-        return taskStore.size();
+        return taskStore.isShared() ? taskStore.size() : statistics.count();
+    }
+
+    /**
+     * Task count, name lengths and this process's mutation rates, kept up to date incrementally
+     * except for a shared store, which is asked for its count and name lengths.
+     */
+    public TaskStats getTaskStats() {
+        if (taskStore.isShared()) {
+            return statistics.snapshot(taskStore.size(), taskStore.countByNameLength());
+        }
+        return statistics.snapshot();
+    }
+
+    /**
+     * Changes whenever any task is created, renamed or deleted.
+     */
+    public ModificationStamp getModificationStamp() {
+        return taskStore.modifications();
+    }
+
+    /**
+     * Every create, rename and delete, in publication order, for the change stream.
+     */
+    public TaskEventLog getEvents() {
+        return events;
     }
     
+    /**
+     * Epoch of the data held here: the event log's, or the leader's log epoch on a follower.
+     * Task entity tags carry it, so a tag read on a follower is still valid on the leader.
+     */
+    public String getDataEpoch() {
+        String leader = leaderEpoch;
+        return leader == null ? events.epoch() : leader;
+    }
+
+    /**
+     * Records the epoch of the leader whose log this replica has applied.
+     */
+    public void followLeaderEpoch(String epoch) {
+        this.leaderEpoch = epoch;
+    }
+    
+    /**
+     * Whether other processes may write the underlying store, so the modification stamp does
+     * not see all of its changes.
+     */
+    public boolean isShared() {
+        return taskStore.isShared();
+    }
+
+    /**
+     * Whether operations may block on I/O in the underlying store.
+     */
+    public boolean isBlocking() {
+        return taskStore.isBlocking();
+    }
+
     public boolean taskExists(int id) {
         try {
             validateId(id);
-            return taskStore.containsKey(id);
+            return taskStore.get(id) != null;
         } catch (IllegalArgumentException e) {
             return false;
         }
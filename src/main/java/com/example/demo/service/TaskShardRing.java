@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+
+/**
+ * Consistent-hash ring that assigns every task ID to one of {@code nodeCount} nodes.
+ *
+ * Each node is placed on a 32-bit ring at {@code virtualNodes} pseudo-random points and owns
+ * the arc ending at each of them; an ID belongs to the node owning the first point at or after
+ * the ID's hash. Many points per node keep the arcs, and so the shards, close to equal in size.
+ * Points depend only on the node index, so growing the cluster from n to n + 1 nodes moves
+ * about 1 / (n + 1) of the IDs, all of them to the new node.
+ *
+ * Lookups are a binary search over a sorted {@code int[]}, with no allocation.
+ */
+public class TaskShardRing {
+
+    private final int nodeCount;
+    private final int[] points;
+    private final int[] owners;
+
+    public TaskShardRing(int nodeCount, int virtualNodes) {
+        if (nodeCount < 1) {
+            throw new IllegalArgumentException("Node count must be at least 1");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be at least 1");
+        }
+        this.nodeCount = nodeCount;
+        int size = nodeCount * virtualNodes;
+        // Sort (point, node) pairs packed into longs; ties between nodes break by index
+        long[] ring = new long[size];
+        for (int node = 0; node < nodeCount; node++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                int point = mix(((long) (node + 1) << 32) | v);
+                ring[node * virtualNodes + v] = ((long) point << 32) | node;
+            }
+        }
+        Arrays.sort(ring);
+        this.points = new int[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = (int) (ring[i] >> 32);
+            owners[i] = (int) ring[i];
+        }
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Index of the node whose shard holds {@code taskId}.
+     */
+    public int ownerOf(int taskId) {
+        int i = Arrays.binarySearch(points, mix(taskId));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        // Past the last point the ring wraps around to the first
+        return owners[i == points.length ? 0 : i];
+    }
+
+    /**
+     * SplitMix64 finalizer folded to 32 bits; consecutive IDs land far apart on the ring.
+     */
+    private static int mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) (z >>> 32);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskStats;
+import com.example.demo.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Running aggregates over the tasks held by TaskService, updated by every mutation so reading
+ * them never scans the store: the task count, a name-length histogram and create/rename/delete
+ * rates. Count and histogram are only right for a store no other process writes; TaskService
+ * asks a shared store instead.
+ *
+ * Counts are {@link LongAdder}s, so concurrent writers touch separate cells instead of
+ * contending on one counter. Each change only adds to or subtracts from them, so writers that
+ * publish a task's changes out of order still leave the right totals. Rates are exponentially weighted moving averages over 1, 5 and
+ * 15 minutes, like Unix load averages, advanced in 5-second ticks by whichever caller
+ * notices a tick is due.
+ */
+public class TaskStatistics {
+
+    /**
+     * Upper bounds of the name-length buckets, in characters; the last one is open-ended.
+     */
+    public static final int[] NAME_LENGTH_BOUNDS = {8, 16, 32, 64, 128, Integer.MAX_VALUE};
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder[] nameLengths = new LongAdder[NAME_LENGTH_BOUNDS.length];
+    private final Rate created;
+    private final Rate updated;
+    private final Rate deleted;
+
+    public TaskStatistics() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime}-style readings, replaceable for tests
+     */
+    public TaskStatistics(LongSupplier nanoClock) {
+        for (int i = 0; i < nameLengths.length; i++) {
+            nameLengths[i] = new LongAdder();
+        }
+        this.created = new Rate(nanoClock);
+        this.updated = new Rate(nanoClock);
+        this.deleted = new Rate(nanoClock);
+    }
+
+    /**
+     * Counts a task that was already in the store at startup, not as created.
+     */
+    public void loaded(Task task) {
+        add(task, 1);
+    }
+
+    public void created(Task task) {
+        add(task, 1);
+        created.mark(1);
+    }
+
+    public void created(List<Task> tasks) {
+        if (!tasks.isEmpty()) {
+            tasks.forEach(task -> add(task, 1));
+            created.mark(tasks.size());
+        }
+    }
+
+    /**
+     * @param before the task as it was replaced
+     */
+    public void updated(Task before, Task after) {
+        nameLengths[bucketOf(before.getName().length())].decrement();
+        nameLengths[bucketOf(after.getName().length())].increment();
+        updated.mark(1);
+    }
+
+    /**
+     * @param removed the task as the store removed it
+     */
+    public void deleted(Task removed) {
+        add(removed, -1);
+        deleted.mark(1);
+    }
+
+    private void add(Task task, int delta) {
+        total.add(delta);
+        nameLengths[bucketOf(task.getName().length())].add(delta);
+    }
+
+    /**
+     * Current number of tasks; sums a handful of cells, independent of the store size.
+     */
+    public int count() {
+        return (int) total.sum();
+    }
+
+    public TaskStats snapshot() {
+        long[] counts = new long[nameLengths.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = nameLengths[i].sum();
+        }
+        return snapshot(total.sum(), counts);
+    }
+
+    /**
+     * Snapshot with the count and histogram of a store that keeps them itself.
+     *
+     * @param countsByLength tasks per name length in characters
+     */
+    public TaskStats snapshot(long total, Map<Integer, Long> countsByLength) {
+        long[] counts = new long[nameLengths.length];
+        countsByLength.forEach((length, count) -> counts[bucketOf(length)] += count);
+        return snapshot(total, counts);
+    }
+
+    private TaskStats snapshot(long total, long[] nameLengths) {
+        List<TaskStats.NameLengthBucket> buckets = new ArrayList<>(nameLengths.length);
+        for (int i = 0; i < nameLengths.length; i++) {
+            int bound = NAME_LENGTH_BOUNDS[i];
+            buckets.add(new TaskStats.NameLengthBucket(bound == Integer.MAX_VALUE ? null : bound, nameLengths[i]));
+        }
+        return new TaskStats(total, created.snapshot(), updated.snapshot(), deleted.snapshot(), buckets);
+    }
+
+    private static int bucketOf(int nameLength) {
+        int bucket = 0;
+        while (nameLength > NAME_LENGTH_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Event count with 1-, 5- and 15-minute moving average rates.
+     */
+    private static final class Rate {
+        private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(5);
+        private static final double TICK_SECONDS = 5.0;
+        private static final double[] ALPHAS = {
+            1 - Math.exp(-TICK_SECONDS / 60), 1 - Math.exp(-TICK_SECONDS / 300), 1 - Math.exp(-TICK_SECONDS / 900)
+        };
+
+        private final LongSupplier nanoClock;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder uncounted = new LongAdder();
+        private final AtomicLong lastTick;
+        private final double[] rates = new double[ALPHAS.length];
+        private boolean started;
+
+        Rate(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            this.lastTick = new AtomicLong(nanoClock.getAsLong());
+        }
+
+        void mark(long events) {
+            tickIfDue();
+            count.add(events);
+            uncounted.add(events);
+        }
+
+        TaskStats.Activity snapshot() {
+            tickIfDue();
+            synchronized (rates) {
+                return new TaskStats.Activity(count.sum(), rates[0], rates[1], rates[2]);
+            }
+        }
+
+        /**
+         * Folds the events since the last tick into the averages, once per elapsed tick. Only the
+         * caller that moves {@code lastTick} forward does it; everyone else carries on.
+         */
+        private void tickIfDue() {
+            long last = lastTick.get();
+            long age = nanoClock.getAsLong() - last;
+            if (age < TICK_NANOS || !lastTick.compareAndSet(last, last + age - age % TICK_NANOS)) {
+                return;
+            }
+            long ticks = age / TICK_NANOS;
+            synchronized (rates) {
+                // Events of the missed ticks all land in the first one; the rest were idle
+                double instant = uncounted.sumThenReset() / TICK_SECONDS;
+                for (long t = 0; t < ticks; t++) {
+                    for (int i = 0; i < rates.length; i++) {
+                        rates[i] = started ? rates[i] + ALPHAS[i] * (instant - rates[i]) : instant;
+                    }
+                    started = true;
+                    instant = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+public class ReactiveTaskApiTest {
+    @Autowired
+    ReactiveWebServerApplicationContext context;
+
+    @Autowired
+    WebTestClient client;
+
+    @Test
+    void testRunsOnNetty() {
+        assertInstanceOf(NettyWebServer.class, context.getWebServer());
+    }
+
+    @Test
+    void testAddTaskFromFormAndList() {
+        client.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .bodyValue("task=Reactive API Task")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.name").isEqualTo("Reactive API Task");
+
+        client.get().uri("/tasks").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[*].name").value(hasItem("Reactive API Task"));
+    }
+}
@@ -2,12 +2,16 @@ package com.example.demo.api;
 
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.hamcrest.Matchers.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
 public class TaskApiTest {
     @LocalServerPort
     int port;
@@ -32,4 +36,30 @@ public class TaskApiTest {
         .when().post("/tasks")
         .then().statusCode(400);
     }
+
+    @Test
+    void testBatchCreateFromNdjson() {
+        RestAssured.given().port(port)
+                .contentType("application/x-ndjson")
+                .body("\"Batch One\"\n\"<b></b>\"\n\"Batch Two\"\n".getBytes(StandardCharsets.UTF_8))
+                .when().post("/tasks/batch")
+                .then().statusCode(200)
+                .body("status", contains(201, 400, 201))
+                .body("task.name", hasItems("Batch One", "Batch Two"));
+    }
+
+    @Test
+    void testPrometheusEndpointExposesTaskMetrics() {
+        RestAssured.given().port(port)
+                .param("task", "Scraped Task")
+                .when().post("/tasks")
+                .then().statusCode(201);
+
+        RestAssured.given().port(port)
+                .when().get("/actuator/prometheus")
+                .then().statusCode(200)
+                .body(containsString("tasks_operations_seconds_bucket{operation=\"add\""))
+                .body(containsString("tasks_store_size"))
+                .body(containsString("http_server_requests_seconds_bucket"));
+    }
 }
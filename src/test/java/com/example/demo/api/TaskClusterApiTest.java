@@ -0,0 +1,165 @@
+package com.example.demo.api;
+
+import com.example.demo.DemoApplication;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Two nodes of a sharded cluster on localhost, each owning the tasks it creates.
+ */
+public class TaskClusterApiTest {
+
+    private static final int[] PORTS = new int[2];
+    private static final ConfigurableApplicationContext[] NODES = new ConfigurableApplicationContext[2];
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        for (int i = 0; i < PORTS.length; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                PORTS[i] = socket.getLocalPort();
+            }
+        }
+        String nodes = "http://localhost:" + PORTS[0] + ",http://localhost:" + PORTS[1];
+        for (int i = 0; i < NODES.length; i++) {
+            NODES[i] = new SpringApplicationBuilder(DemoApplication.class).run(
+                "--server.port=" + PORTS[i],
+                "--task.cluster.nodes=" + nodes,
+                "--task.cluster.node-id=" + i);
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        for (ConfigurableApplicationContext node : NODES) {
+            if (node != null) {
+                node.close();
+            }
+        }
+    }
+
+    @Test
+    void testRequestsReachTheOwningNodeAndListsCoverAllShards() {
+        int onFirst = RestAssured.given().port(PORTS[0])
+            .param("task", "Cluster task A")
+            .when().post("/tasks")
+            .then().statusCode(201)
+            .extract().path("id");
+        int onSecond = RestAssured.given().port(PORTS[1])
+            .param("task", "Cluster task B")
+            .when().post("/tasks")
+            .then().statusCode(201)
+            .extract().path("id");
+
+        // Each node serves the other's task by forwarding, preconditions included
+        RestAssured.given().port(PORTS[0])
+            .when().get("/tasks/" + onSecond)
+            .then().statusCode(200)
+            .header("ETag", notNullValue())
+            .body("name", equalTo("Cluster task B"));
+        RestAssured.given().port(PORTS[1])
+            .header("If-Match", "\"0-1\"")
+            .param("task", "Stale rename")
+            .when().put("/tasks/" + onFirst)
+            .then().statusCode(412);
+        RestAssured.given().port(PORTS[1])
+            .param("task", "Renamed A")
+            .when().put("/tasks/" + onFirst)
+            .then().statusCode(200)
+            .body("name", equalTo("Renamed A"));
+
+        for (int port : PORTS) {
+            RestAssured.given().port(port)
+                .when().get("/tasks")
+                .then().statusCode(200)
+                .body("name", hasItems("Renamed A", "Cluster task B"));
+            RestAssured.given().port(port)
+                .when().get("/tasks/count")
+                .then().statusCode(200)
+                .body(equalTo("2"));
+        }
+        // A node asked for its own shard answers alone
+        RestAssured.given().port(PORTS[0])
+            .header("X-Task-Shard-Local", "test")
+            .when().get("/tasks/count")
+            .then().body(equalTo("1"));
+
+        RestAssured.given().port(PORTS[0])
+            .when().delete("/tasks/" + onSecond)
+            .then().statusCode(200);
+        RestAssured.given().port(PORTS[1])
+            .when().get("/tasks")
+            .then().body("name", not(hasItem("Cluster task B")));
+    }
+
+    @Test
+    void testBatchWritesReachEveryOwnerAndShardReadsAreMarked() {
+        int onFirst = create(PORTS[0], "Batch task A");
+        int onSecond = create(PORTS[1], "Batch task B");
+
+        RestAssured.given().port(PORTS[0])
+            .contentType(ContentType.JSON)
+            .body(List.of(Map.of("id", onSecond, "name", "Batch B renamed"), Map.of("id", 0, "name", "Invalid"),
+                Map.of("id", onFirst, "name", "Batch A renamed")))
+            .when().put("/tasks/batch")
+            .then().statusCode(200)
+            .body("index", contains(0, 1, 2))
+            .body("status", contains(200, 400, 200))
+            .body("[0].task.name", equalTo("Batch B renamed"))
+            .body("[2].task.name", equalTo("Batch A renamed"));
+        RestAssured.given().port(PORTS[1])
+            .when().get("/tasks/" + onFirst)
+            .then().body("name", equalTo("Batch A renamed"));
+
+        // Reads that cover one shard say which
+        RestAssured.given().port(PORTS[0])
+            .param("limit", 10)
+            .when().get("/tasks")
+            .then().statusCode(200)
+            .header("X-Task-Shard", "0")
+            .body("name", hasItem("Batch A renamed"))
+            .body("name", not(hasItem("Batch B renamed")));
+        RestAssured.given().port(PORTS[1])
+            .accept("application/x-ndjson")
+            .when().get("/tasks")
+            .then().statusCode(200)
+            .header("X-Task-Shard", "1");
+        RestAssured.given().port(PORTS[0])
+            .when().get("/tasks")
+            .then().header("X-Task-Shard", nullValue());
+
+        RestAssured.given().port(PORTS[1])
+            .contentType("application/x-ndjson")
+            .body((onFirst + "\n" + onSecond + "\n" + onFirst + "\n").getBytes(StandardCharsets.UTF_8))
+            .when().delete("/tasks/batch")
+            .then().statusCode(200)
+            .body("index", contains(0, 1, 2))
+            .body("status", contains(200, 200, 404));
+        for (int port : PORTS) {
+            RestAssured.given().port(port)
+                .when().get("/tasks")
+                .then().body("name", not(hasItems("Batch A renamed")))
+                .body("name", not(hasItems("Batch B renamed")));
+        }
+    }
+
+    private static int create(int port, String name) {
+        return RestAssured.given().port(port)
+            .param("task", name)
+            .when().post("/tasks")
+            .then().statusCode(201)
+            .extract().path("id");
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.demo.api;
+
+import com.example.demo.DemoApplication;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.hamcrest.Matchers.*;
+
+/**
+ * A leader and a follower tailing its mutation log, on localhost.
+ */
+public class TaskReplicationApiTest {
+
+    private static int leaderPort;
+    private static int followerPort;
+    private static ConfigurableApplicationContext leader;
+    private static ConfigurableApplicationContext follower;
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        try (ServerSocket first = new ServerSocket(0); ServerSocket second = new ServerSocket(0)) {
+            leaderPort = first.getLocalPort();
+            followerPort = second.getLocalPort();
+        }
+        leader = startLeader();
+        follower = new SpringApplicationBuilder(DemoApplication.class).run(
+            "--server.port=" + followerPort,
+            "--task.replication.leader=http://localhost:" + leaderPort,
+            "--task.replication.poll-wait=200ms",
+            "--task.replication.read-wait=10s");
+    }
+
+    private static ConfigurableApplicationContext startLeader() {
+        return new SpringApplicationBuilder(DemoApplication.class).run("--server.port=" + leaderPort);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (follower != null) {
+            follower.close();
+        }
+        if (leader != null) {
+            leader.close();
+        }
+    }
+
+    @Test
+    void testFollowerReadsItsLeadersWrites() {
+        Response created = RestAssured.given().port(leaderPort)
+            .param("task", "Replicated task")
+            .when().post("/tasks");
+        created.then().statusCode(201).header("X-Task-Log-Position", notNullValue());
+        int id = created.path("id");
+
+        // Read-your-writes: the follower waits until it has the write, then answers itself
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("X-Task-Min-Position", created.header("X-Task-Log-Position"))
+            .when().get("/tasks/" + id)
+            .then().statusCode(200)
+            .header("X-Task-Log-Position", notNullValue())
+            .body("name", equalTo("Replicated task"));
+
+        Response renamed = RestAssured.given().port(leaderPort)
+            .param("task", "Renamed on leader")
+            .when().put("/tasks/" + id);
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("X-Task-Min-Position", renamed.header("X-Task-Log-Position"))
+            .when().get("/tasks")
+            .then().statusCode(200)
+            .body("name", hasItem("Renamed on leader"));
+
+        Response deleted = RestAssured.given().port(leaderPort).when().delete("/tasks/" + id);
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("X-Task-Min-Position", deleted.header("X-Task-Log-Position"))
+            .when().get("/tasks/count")
+            .then().statusCode(200)
+            .body(equalTo("0"));
+    }
+
+    @Test
+    void testFollowerConvergesOnARestartedLeader() {
+        int id = RestAssured.given().port(leaderPort)
+            .param("task", "Before restart")
+            .when().post("/tasks")
+            .path("id");
+        Response renamed = RestAssured.given().port(leaderPort)
+            .param("task", "Renamed before restart")
+            .when().put("/tasks/" + id);
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("X-Task-Min-Position", renamed.header("X-Task-Log-Position"))
+            .when().get("/tasks/" + id)
+            .then().statusCode(200)
+            .body("name", equalTo("Renamed before restart"));
+
+        // The in-memory leader comes back empty, in a new epoch, and hands out the same IDs again
+        leader.close();
+        leader = startLeader();
+        Response reused;
+        do {
+            reused = RestAssured.given().port(leaderPort)
+                .param("task", "After restart")
+                .when().post("/tasks");
+        } while (reused.<Integer>path("id") < id);
+
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("X-Task-Min-Position", reused.header("X-Task-Log-Position"))
+            .when().get("/tasks/" + id)
+            .then().statusCode(200)
+            .body("name", equalTo("After restart"));
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .when().get("/tasks")
+            .then().statusCode(200)
+            .body("name", everyItem(equalTo("After restart")))
+            .body("size()", equalTo(id));
+
+        for (int created = 1; created <= id; created++) {
+            RestAssured.given().port(leaderPort).when().delete("/tasks/" + created).then().statusCode(200);
+        }
+    }
+
+    @Test
+    void testFollowerETagIsValidOnTheLeader() {
+        Response created = RestAssured.given().port(leaderPort)
+            .param("task", "Tagged")
+            .when().post("/tasks");
+        int id = created.path("id");
+        String etag = RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("X-Task-Min-Position", created.header("X-Task-Log-Position"))
+            .when().get("/tasks/" + id)
+            .then().statusCode(200)
+            .extract().header("ETag");
+
+        // The conditional write is sent on to the leader, which must accept the follower's tag
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("If-Match", etag)
+            .param("task", "Retagged")
+            .when().put("/tasks/" + id)
+            .then().statusCode(307);
+        RestAssured.given().port(leaderPort)
+            .header("If-Match", etag)
+            .param("task", "Retagged")
+            .when().put("/tasks/" + id)
+            .then().statusCode(200)
+            .body("name", equalTo("Retagged"));
+        RestAssured.given().port(leaderPort)
+            .header("If-Match", etag)
+            .param("task", "Stale")
+            .when().put("/tasks/" + id)
+            .then().statusCode(412);
+
+        RestAssured.given().port(leaderPort).when().delete("/tasks/" + id).then().statusCode(200);
+    }
+
+    @Test
+    void testFollowerSendsWritesAndTooStrictReadsToTheLeader() {
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .param("task", "Write on follower")
+            .when().post("/tasks")
+            .then().statusCode(307)
+            .header("Location", "http://localhost:" + leaderPort + "/tasks");
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("X-Task-Max-Staleness", "0")
+            .when().get("/tasks")
+            .then().statusCode(307);
+        RestAssured.given().port(followerPort).redirects().follow(false)
+            .header("X-Task-Min-Position", "unknown-1")
+            .when().get("/tasks/count")
+            .then().statusCode(307);
+    }
+}
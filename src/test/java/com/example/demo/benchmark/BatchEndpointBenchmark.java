@@ -0,0 +1,65 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.controller.TaskController;
+import com.example.demo.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Creating {@code tasksPerOp} tasks through the single-item endpoint versus one batch request,
+ * measured through the MockMvc dispatcher so request handling and JSON costs are included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BatchEndpointBenchmark {
+
+    @Param({"1000"})
+    int tasksPerOp;
+
+    private MockMvc mockMvc;
+    private String jsonBatch;
+    private String ndjsonBatch;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(new TaskService(), objectMapper)).build();
+        List<String> names = new ArrayList<>(tasksPerOp);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < tasksPerOp; i++) {
+            names.add("Benchmark task " + i);
+            ndjson.append(objectMapper.writeValueAsString(names.get(i))).append('\n');
+        }
+        jsonBatch = objectMapper.writeValueAsString(names);
+        ndjsonBatch = ndjson.toString();
+    }
+
+    @Benchmark
+    public void singleItemRequests() throws Exception {
+        for (int i = 0; i < tasksPerOp; i++) {
+            mockMvc.perform(post("/tasks").param("task", "Benchmark task " + i));
+        }
+    }
+
+    @Benchmark
+    public void jsonBatchRequest() throws Exception {
+        mockMvc.perform(post("/tasks/batch").contentType(MediaType.APPLICATION_JSON).content(jsonBatch));
+    }
+
+    @Benchmark
+    public void ndjsonBatchRequest() throws Exception {
+        mockMvc.perform(post("/tasks/batch").contentType("application/x-ndjson").content(ndjsonBatch));
+    }
+}
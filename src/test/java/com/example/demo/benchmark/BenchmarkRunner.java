@@ -0,0 +1,53 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Runs the benchmark suite once per thread count and writes one JMH JSON result file per run
+ * to {@code target/jmh/}, so results can be archived and compared between releases.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ *   -Dbenchmark.main=com.example.demo.benchmark.BenchmarkRunner -Dbenchmark.args="[include regex]"
+ *   [-Djmh.threads=1,2,4,8]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "Task(Service|Controller|Json)Benchmark";
+        File resultDir = new File("target/jmh");
+        resultDir.mkdirs();
+
+        for (int threads : threadCounts()) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .threads(threads)
+                .forks(1)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(resultDir, "results-" + threads + "-threads.json").getPath());
+            new Runner(options.build()).run();
+        }
+    }
+
+    private static TreeSet<Integer> threadCounts() {
+        String configured = System.getProperty("jmh.threads");
+        TreeSet<Integer> counts = new TreeSet<>();
+        if (configured != null && !configured.isBlank()) {
+            Arrays.stream(configured.split(",")).map(String::trim).map(Integer::parseInt).forEach(counts::add);
+        } else {
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads < cores; threads <<= 1) {
+                counts.add(threads);
+            }
+            counts.add(cores);
+        }
+        return counts;
+    }
+}
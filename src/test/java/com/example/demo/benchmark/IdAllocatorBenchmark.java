@@ -0,0 +1,43 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.CounterIdAllocator;
+import com.example.demo.service.StripedIdAllocator;
+import com.example.demo.service.TaskIdAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-ID allocation under write bursts: the shared {@code AtomicInteger} behind
+ * CounterIdAllocator against StripedIdAllocator's per-core blocks. The counter's cache line
+ * bounces between cores on every call, so the gap only shows with several threads; sweep
+ * them with {@code -t} or BenchmarkRunner's {@code jmh.threads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdAllocatorBenchmark {
+
+    @Param({"counter", "striped"})
+    String allocator;
+
+    @Param({"64"})
+    int blockSize;
+
+    private TaskIdAllocator ids;
+
+    @Setup(Level.Iteration)
+    public void create() {
+        // Fresh per iteration so the int range is never exhausted
+        ids = "striped".equals(allocator)
+            ? new StripedIdAllocator(0, blockSize)
+            : new CounterIdAllocator(1);
+    }
+
+    @Benchmark
+    public int next() {
+        return ids.next();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.model.Task;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.TaskStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting {@code rows} tasks into H2: a naive {@code TaskRepository.save()} per task against
+ * JpaTaskStore.putAll in chunks of {@value #CHUNK_SIZE}, as the batch endpoint calls it. Uses
+ * the application's Hibernate batching settings; the table is emptied before each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class JpaInsertBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param({"1000000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository repository;
+    private TaskStore store;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties("task.store.type=jpa", "logging.level.root=WARN")
+            .run();
+        repository = context.getBean(TaskRepository.class);
+        store = context.getBean(TaskStore.class);
+        tasks = new ArrayList<>(rows);
+        for (int id = 1; id <= rows; id++) {
+            tasks.add(new Task(id, "Inserted task number " + id));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        repository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public long saveLoop() {
+        for (Task task : tasks) {
+            repository.save(new Task(task.getId(), task.getName()));
+        }
+        return repository.count();
+    }
+
+    @Benchmark
+    public long batchedPutAll() {
+        for (int from = 0; from < rows; from += CHUNK_SIZE) {
+            store.putAll(tasks.subList(from, Math.min(from + CHUNK_SIZE, rows)));
+        }
+        return repository.count();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.MappedTaskStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to reopen a memory-mapped task log and rebuild its index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class MappedTaskStoreRecoveryBenchmark {
+
+    @Param({"1000000"})
+    int storeSize;
+
+    private Path log;
+
+    @Setup(Level.Trial)
+    public void writeLog() throws IOException {
+        log = Files.createTempFile("tasks", ".log");
+        Files.delete(log);
+        try (MappedTaskStore store = new MappedTaskStore(log, 64 * 1024 * 1024, false)) {
+            for (int id = 1; id <= storeSize; id++) {
+                store.put(new Task(id, "Recovered task number " + id));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLog() throws IOException {
+        Files.deleteIfExists(log);
+    }
+
+    @Benchmark
+    public int reopen() throws IOException {
+        try (MappedTaskStore store = new MappedTaskStore(log, 64 * 1024 * 1024, false)) {
+            return store.size();
+        }
+    }
+}
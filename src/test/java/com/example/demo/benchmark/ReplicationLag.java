@@ -0,0 +1,137 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.controller.TaskReplica;
+import com.example.demo.service.TaskEventLog;
+import com.example.demo.service.TaskService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replication lag of a follower under a sustained write rate.
+ *
+ * Starts a leader and a follower in this JVM, talking over HTTP on localhost, and writes to
+ * the leader at {@code rate} mutations per second for {@code seconds} (half creates, half
+ * renames of existing tasks). Every millisecond it samples the leader's log head and the
+ * follower's applied position; the lag of a sample is how long the follower took to apply
+ * everything the leader had at that moment. Reports lag percentiles in milliseconds and the
+ * largest backlog in mutations. Both nodes share this machine's cores, so lag includes
+ * competing with the writer for CPU.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ *   -Dbenchmark.main=com.example.demo.benchmark.ReplicationLag -Dbenchmark.args="5000 10"
+ */
+public class ReplicationLag {
+
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int leaderPort = freePort();
+        int followerPort = freePort();
+        String[] quiet = {"--logging.level.root=WARN", "--spring.main.banner-mode=off"};
+        try (ConfigurableApplicationContext leader = start(quiet, "--server.port=" + leaderPort);
+             ConfigurableApplicationContext follower = start(quiet, "--server.port=" + followerPort,
+                 "--task.replication.leader=http://localhost:" + leaderPort)) {
+            TaskService service = leader.getBean(TaskService.class);
+            TaskEventLog log = leader.getBean(TaskEventLog.class);
+            TaskReplica replica = follower.getBean(TaskReplica.class);
+            // Let the follower load the (empty) snapshot first
+            while (replica.position() == null) {
+                Thread.sleep(10);
+            }
+            measure(service, log, replica, rate, seconds);
+        }
+    }
+
+    private static void measure(TaskService service, TaskEventLog log, TaskReplica replica,
+                                int rate, int seconds) throws InterruptedException {
+        int samples = seconds * 1000;
+        long[] sampledAt = new long[samples];
+        long[] leaderHead = new long[samples];
+        long[] followerApplied = new long[samples * 2];
+        long[] followerAt = new long[samples * 2];
+
+        Thread writer = new Thread(() -> write(service, rate, seconds), "lag-writer");
+        long start = System.nanoTime();
+        writer.start();
+        int followerSamples = 0;
+        for (int i = 0; i < samples * 2; i++) {
+            long now = System.nanoTime();
+            if (i < samples) {
+                sampledAt[i] = now;
+                leaderHead[i] = log.lastSequence();
+            }
+            followerAt[i] = now;
+            followerApplied[i] = replica.appliedSequence();
+            followerSamples++;
+            // Keep sampling the follower after writes stop, until it has caught up
+            if (i >= samples && followerApplied[i] >= leaderHead[samples - 1]) {
+                break;
+            }
+            LockSupport.parkNanos(start + (i + 1) * SAMPLE_INTERVAL_NANOS - System.nanoTime());
+        }
+        writer.join();
+
+        double[] lagMillis = new double[samples];
+        long maxBacklog = 0;
+        int f = 0;
+        for (int i = 0; i < samples; i++) {
+            while (f < followerSamples - 1 && (followerAt[f] < sampledAt[i] || followerApplied[f] < leaderHead[i])) {
+                f++;
+            }
+            lagMillis[i] = followerApplied[f] >= leaderHead[i]
+                ? (followerAt[f] - sampledAt[i]) / 1e6
+                : Double.POSITIVE_INFINITY;
+        }
+        for (int i = 0; i < samples; i++) {
+            // Both were read in the same sampling pass
+            maxBacklog = Math.max(maxBacklog, leaderHead[i] - followerApplied[i]);
+        }
+        Arrays.sort(lagMillis);
+        System.out.printf("%,d writes/s for %d s, %,d mutations: lag p50 %.1f ms, p99 %.1f ms, max %.1f ms; "
+                + "largest backlog %,d mutations%n",
+            rate, seconds, leaderHead[samples - 1], percentile(lagMillis, 0.50), percentile(lagMillis, 0.99),
+            lagMillis[samples - 1], maxBacklog);
+    }
+
+    private static void write(TaskService service, int rate, int seconds) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long total = (long) rate * seconds;
+        int lastId = 0;
+        for (long i = 0; i < total; i++) {
+            LockSupport.parkNanos(start + i * interval - System.nanoTime());
+            if (lastId == 0 || (i & 1) == 0) {
+                lastId = service.addTask("Task " + i).getId();
+            } else {
+                int id = ThreadLocalRandom.current().nextInt(1, lastId + 1);
+                service.updateTask(id, "Renamed " + i);
+            }
+        }
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+
+    private static ConfigurableApplicationContext start(String[] common, String... args) {
+        String[] all = Arrays.copyOf(common, common.length + args.length);
+        System.arraycopy(args, 0, all, common.length, args.length);
+        return new SpringApplicationBuilder(DemoApplication.class).run(all);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.controller.EncodedTaskCache;
+import com.example.demo.controller.TaskController;
+import com.example.demo.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * The TaskController stack through the MockMvc dispatcher: routing, argument binding,
+ * the service and Jackson message conversion, without a network hop.
+ * {@code encodedCacheSize > 0} serves {@code getTask} from the encoded-task cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskControllerBenchmark {
+
+    @Param({"10000"})
+    int storeSize;
+
+    @Param({"0", "10000"})
+    int encodedCacheSize;
+
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        TaskService service = new TaskService();
+        for (int i = 0; i < storeSize; i++) {
+            service.addTask("Benchmark task " + i);
+        }
+        EncodedTaskCache encodedTasks = encodedCacheSize > 0 ? new EncodedTaskCache(objectMapper, encodedCacheSize) : null;
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(service, objectMapper, encodedTasks, null))
+            .setMessageConverters(new ByteArrayHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+            .build();
+    }
+
+    @Benchmark
+    public MvcResult getTask() throws Exception {
+        int id = ThreadLocalRandom.current().nextInt(1, storeSize + 1);
+        return mockMvc.perform(get("/tasks/" + id)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getTaskPage() throws Exception {
+        return mockMvc.perform(get("/tasks").param("limit", "100")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult addTask() throws Exception {
+        return mockMvc.perform(post("/tasks").param("task", "Benchmark task")).andReturn();
+    }
+}
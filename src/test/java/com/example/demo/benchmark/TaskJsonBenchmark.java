@@ -0,0 +1,61 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.controller.EncodedTaskCache;
+import com.example.demo.model.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of Task with the mapper configuration Spring MVC uses, and the
+ * encoded-task cache hit that replaces it for repeated single-task reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskJsonBenchmark {
+
+    @Param({"1000"})
+    int listSize;
+
+    private ObjectWriter taskWriter;
+    private ObjectWriter listWriter;
+    private EncodedTaskCache encodedTasks;
+    private Task task;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        taskWriter = objectMapper.writerFor(Task.class);
+        encodedTasks = new EncodedTaskCache(objectMapper, 1);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Task.class));
+        task = new Task(42, "Serialize this benchmark task");
+        tasks = new ArrayList<>(listSize);
+        for (int i = 1; i <= listSize; i++) {
+            tasks.add(new Task(i, "Benchmark task " + i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws Exception {
+        return taskWriter.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] cachedTask() {
+        return encodedTasks.json(task);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws Exception {
+        return listWriter.writeValueAsBytes(tasks);
+    }
+}
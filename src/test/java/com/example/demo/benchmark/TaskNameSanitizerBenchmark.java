@@ -0,0 +1,44 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.TaskNameSanitizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Single-pass TaskNameSanitizer versus the regex pipeline it replaced, on clean and dirty names.
+ * Run with {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskNameSanitizerBenchmark {
+
+    private static final Pattern DANGEROUS_PATTERN = Pattern.compile("[<>\"'&;]");
+    private static final Pattern HTML_TAG_PATTERN = Pattern.compile("<[^>]*>");
+
+    @Param({"Write the quarterly report for finance", "  <b>Tom's</b> report & \"notes\"; due <Friday  "})
+    String name;
+
+    @Benchmark
+    public String regex() {
+        String trimmed = name.trim();
+        if (trimmed.isEmpty() || trimmed.length() > TaskNameSanitizer.MAX_TASK_NAME_LENGTH) {
+            throw new IllegalArgumentException();
+        }
+        String sanitized = HTML_TAG_PATTERN.matcher(trimmed).replaceAll("");
+        sanitized = DANGEROUS_PATTERN.matcher(sanitized).replaceAll("_");
+        if (sanitized.trim().isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        return sanitized;
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return TaskNameSanitizer.sanitize(name);
+    }
+}
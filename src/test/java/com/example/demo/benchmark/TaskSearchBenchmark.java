@@ -0,0 +1,76 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.TaskSearchPage;
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.service.TaskSearchIndex;
+import com.example.demo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a name search over millions of tasks. Names are "Task" plus three words drawn
+ * from a {@value #VOCABULARY}-word vocabulary, so {@code task} matches everything,
+ * a single word about 0.15% of tasks, two words a handful, and a two-letter prefix a few terms'
+ * worth. {@code task} is the worst case: every page copies the whole posting list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskSearchBenchmark {
+
+    private static final int VOCABULARY = 2000;
+
+    @Param({"1000000"})
+    int storeSize;
+
+    @Param({"word", "twoWords", "prefix", "everything"})
+    String query;
+
+    private TaskService service;
+    private String q;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int length = 4 + random.nextInt(5); word.length() < length; ) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        service = new TaskService(new ConcurrentTaskStore(), new TaskSearchIndex());
+        List<String> names = new ArrayList<>(1000);
+        for (int i = 0; i < storeSize; i++) {
+            names.add("Task " + words[random.nextInt(VOCABULARY)] + " " + words[random.nextInt(VOCABULARY)]
+                + " " + words[random.nextInt(VOCABULARY)]);
+            if (names.size() == 1000) {
+                service.addTasks(names, 0);
+                names.clear();
+            }
+        }
+        service.addTasks(names, 0);
+
+        Task sample = service.getLatestTasks(1).get(0);
+        String[] sampleWords = sample.getName().split(" ");
+        q = switch (query) {
+            case "word" -> sampleWords[1];
+            case "twoWords" -> sampleWords[1] + " " + sampleWords[2];
+            case "prefix" -> sampleWords[1].substring(0, 2);
+            default -> "task";
+        };
+    }
+
+    @Benchmark
+    public TaskSearchPage search() {
+        return service.searchTasks(q, 0, 20);
+    }
+}
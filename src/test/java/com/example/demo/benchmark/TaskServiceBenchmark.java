@@ -0,0 +1,97 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.PrimitiveTaskStore;
+import com.example.demo.service.TaskService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Core TaskService operations per store type and store size. Thread count comes from
+ * JMH's {@code -t} option or from BenchmarkRunner's sweep. {@code metrics=prometheus}
+ * records into a Prometheus registry with histogram buckets, as the application does,
+ * to show the instrumentation overhead against the no-op meters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskServiceBenchmark {
+
+    @Param({"concurrent", "primitive"})
+    String storeType;
+
+    @Param({"1000", "100000"})
+    int storeSize;
+
+    @Param({"none", "prometheus"})
+    String metrics;
+
+    private TaskService service;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        service = new TaskService("primitive".equals(storeType)
+            ? new PrimitiveTaskStore(storeSize)
+            : new ConcurrentTaskStore(),
+            "prometheus".equals(metrics) ? prometheusRegistry() : new CompositeMeterRegistry());
+        for (int i = 0; i < storeSize; i++) {
+            service.addTask("Benchmark task " + i);
+        }
+    }
+
+    private static PrometheusMeterRegistry prometheusRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        return registry;
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, storeSize + 1);
+    }
+
+    @Benchmark
+    public Task getTaskById() {
+        return service.getTaskById(randomId());
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        return service.updateTask(randomId(), "Updated benchmark task");
+    }
+
+    /**
+     * Add and delete together so the store size stays at {@code storeSize}.
+     */
+    @Benchmark
+    public boolean addThenDeleteTask() {
+        Task task = service.addTask("Short-lived benchmark task");
+        return service.deleteTask(task.getId());
+    }
+
+    @Benchmark
+    public List<Task> getTaskPage() {
+        return service.getTasksAfter(randomId(), 100);
+    }
+
+    @Benchmark
+    public List<Task> getTasks() {
+        return service.getTasks();
+    }
+}
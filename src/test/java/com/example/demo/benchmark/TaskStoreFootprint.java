@@ -0,0 +1,48 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.PrimitiveTaskStore;
+import com.example.demo.repository.TaskStore;
+
+import java.util.function.Supplier;
+
+/**
+ * Retained heap per million tasks for each TaskStore implementation.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ *   -Dbenchmark.main=com.example.demo.benchmark.TaskStoreFootprint -Dbenchmark.args=1000000
+ */
+public class TaskStoreFootprint {
+
+    public static void main(String[] args) {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        report("concurrent", ConcurrentTaskStore::new, tasks);
+        report("primitive", () -> new PrimitiveTaskStore(1024), tasks);
+    }
+
+    private static void report(String name, Supplier<TaskStore> factory, int tasks) {
+        // Names are created up front so both stores are charged only for their own structure
+        String[] names = new String[tasks];
+        for (int i = 0; i < tasks; i++) {
+            names[i] = "Task " + i;
+        }
+        long before = usedHeap();
+        TaskStore store = factory.get();
+        for (int i = 0; i < tasks; i++) {
+            store.put(new Task(i + 1, names[i]));
+        }
+        long after = usedHeap();
+        double mbPerMillion = (after - before) / (1024.0 * 1024.0) * (1_000_000.0 / tasks);
+        System.out.printf("%-10s %,d tasks: %.1f MB per million tasks (excluding name strings)%n",
+            name, store.size(), mbPerMillion);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
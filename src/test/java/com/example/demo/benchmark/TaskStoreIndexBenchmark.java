@@ -0,0 +1,127 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point and range lookups on the previous unordered {@link ConcurrentHashMap} store, a fully
+ * ordered {@link ConcurrentSkipListMap} store, and the hash map plus skip-list ID index that
+ * TaskService uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskStoreIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    int storeSize;
+
+    @Param({"100"})
+    int rangeSize;
+
+    private Map<Integer, Task> hashStore;
+    private ConcurrentNavigableMap<Integer, Task> skipListStore;
+    private NavigableSet<Integer> idIndex;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        hashStore = new ConcurrentHashMap<>();
+        skipListStore = new ConcurrentSkipListMap<>();
+        idIndex = new ConcurrentSkipListSet<>();
+        for (int id = 1; id <= storeSize; id++) {
+            Task task = new Task(id, "Task " + id);
+            hashStore.put(id, task);
+            skipListStore.put(id, task);
+            idIndex.add(id);
+        }
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, storeSize + 1);
+    }
+
+    @Benchmark
+    public Task pointLookupHashMap() {
+        return hashStore.get(randomId());
+    }
+
+    @Benchmark
+    public Task pointLookupSkipList() {
+        return skipListStore.get(randomId());
+    }
+
+    @Benchmark
+    public List<Task> rangeScanHashMap() {
+        int from = randomId();
+        int to = from + rangeSize - 1;
+        List<Task> result = new ArrayList<>();
+        for (Task task : hashStore.values()) {
+            if (task.getId() >= from && task.getId() <= to) {
+                result.add(task);
+            }
+        }
+        result.sort(Comparator.comparingInt(Task::getId));
+        return result;
+    }
+
+    @Benchmark
+    public List<Task> rangeScanSkipList() {
+        int from = randomId();
+        return new ArrayList<>(skipListStore.subMap(from, true, from + rangeSize - 1, true).values());
+    }
+
+    @Benchmark
+    public List<Task> rangeScanIdIndex() {
+        int from = randomId();
+        List<Task> result = new ArrayList<>(rangeSize);
+        for (Integer id : idIndex.subSet(from, true, from + rangeSize - 1, true)) {
+            result.add(hashStore.get(id));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Task> latestHashMap() {
+        List<Task> all = new ArrayList<>(hashStore.values());
+        all.sort(Comparator.comparingInt(Task::getId).reversed());
+        return new ArrayList<>(all.subList(0, Math.min(rangeSize, all.size())));
+    }
+
+    @Benchmark
+    public List<Task> latestSkipList() {
+        List<Task> result = new ArrayList<>(rangeSize);
+        for (Task task : skipListStore.descendingMap().values()) {
+            if (result.size() == rangeSize) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Task> latestIdIndex() {
+        List<Task> result = new ArrayList<>(rangeSize);
+        for (Integer id : idIndex.descendingSet()) {
+            if (result.size() == rangeSize) {
+                break;
+            }
+            result.add(hashStore.get(id));
+        }
+        return result;
+    }
+}
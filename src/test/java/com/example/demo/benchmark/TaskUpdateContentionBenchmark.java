@@ -0,0 +1,66 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.PrimitiveTaskStore;
+import com.example.demo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many writers renaming a few hot tasks. Every update is a version compare-and-set that
+ * retries on conflict, so with {@code hotIds=1} all threads fight over one entry and with
+ * more hot IDs the conflicts spread out. Run at several thread counts (BenchmarkRunner's
+ * {@code jmh.threads} sweep or {@code -t}) to see how throughput scales with cores.
+ * {@code readWrite} adds readers, which never block on writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskUpdateContentionBenchmark {
+
+    @Param({"concurrent", "primitive"})
+    String storeType;
+
+    @Param({"1", "8", "1024"})
+    int hotIds;
+
+    private TaskService service;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        service = new TaskService("primitive".equals(storeType)
+            ? new PrimitiveTaskStore(hotIds)
+            : new ConcurrentTaskStore());
+        for (int i = 0; i < hotIds; i++) {
+            service.addTask("Hot task " + i);
+        }
+    }
+
+    private int hotId() {
+        return ThreadLocalRandom.current().nextInt(1, hotIds + 1);
+    }
+
+    @Benchmark
+    public Task update() {
+        return service.updateTask(hotId(), "Contended update");
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Task read() {
+        return service.getTaskById(hotId());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Task write() {
+        return service.updateTask(hotId(), "Contended update");
+    }
+}
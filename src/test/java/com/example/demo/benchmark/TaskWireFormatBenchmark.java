@@ -0,0 +1,87 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Task;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding a {@code GET /tasks} response of {@code listSize} tasks in each negotiable format,
+ * with and without the gzip that {@code server.compression} applies on the way out.
+ *
+ * The score is CPU time per response; bytes on the wire are printed once per trial, as
+ * {@code wire <format>/<compression>: <bytes>}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskWireFormatBenchmark {
+
+    @Param({"100000"})
+    int listSize;
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"none", "gzip"})
+    String compression;
+
+    private ObjectWriter writer;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        writer = mapper.writerFor(new TypeReference<List<Task>>() {});
+        tasks = new ArrayList<>(listSize);
+        for (int i = 1; i <= listSize; i++) {
+            tasks.add(new Task(i, "Benchmark task " + i));
+        }
+        System.out.printf("%nwire %s/%s: %,d bytes%n", format, compression, encode());
+    }
+
+    @Benchmark
+    public long encode() throws IOException {
+        CountingOutputStream wire = new CountingOutputStream();
+        if ("gzip".equals(compression)) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(wire, 8192)) {
+                writer.writeValue(gzip, tasks);
+            }
+        } else {
+            writer.writeValue(wire, tasks);
+        }
+        return wire.bytes;
+    }
+
+    /**
+     * Stands in for the socket, so only encoding and compression are measured.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.WalTaskStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to recover a write-ahead-logged store, from a snapshot (clean shutdown) or by replaying
+ * the log alone (crash before the first snapshot), using every core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class WalTaskStoreRecoveryBenchmark {
+
+    @Param({"1000000"})
+    int storeSize;
+
+    @Param({"snapshot", "log"})
+    String source;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void write() throws IOException {
+        directory = Files.createTempDirectory("tasks-wal");
+        WalTaskStore store = open();
+        List<Task> chunk = new ArrayList<>(1000);
+        for (int id = 1; id <= storeSize; id++) {
+            chunk.add(new Task(id, "Recovered task number " + id));
+            if (chunk.size() == 1000) {
+                store.putAll(chunk);
+                chunk.clear();
+            }
+        }
+        store.putAll(chunk);
+        if ("snapshot".equals(source)) {
+            store.close();
+        }
+        // Otherwise abandon it like a crash: every write is already synced to the log
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int recover() {
+        try (WalTaskStore store = open()) {
+            return store.size();
+        }
+    }
+
+    private WalTaskStore open() {
+        return new WalTaskStore(new ConcurrentTaskStore(), directory, true, Duration.ZERO, Duration.ofSeconds(1),
+            4096, Duration.ofHours(1), Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.tdd;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.CachingTaskStore;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingTaskStoreTest {
+
+    private final CountingStore database = new CountingStore();
+    private final CachingTaskStore store = new CachingTaskStore(database, 100, Duration.ofMinutes(10));
+
+    @Test
+    void testRepeatedReadsAreServedFromCache() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+        store.put(new Task(1, "First"));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("First", store.get(1).getName());
+        }
+
+        assertEquals(1, database.loads.get());
+        assertEquals(9, registry.get("cache.gets").tag("cache", "tasks").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "tasks").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testUpdateAndDeleteInvalidate() {
+        TaskService service = new TaskService(store);
+        Task task = service.addTask("Original");
+        assertEquals("Original", service.getTaskById(task.getId()).getName());
+
+        service.updateTask(task.getId(), "Renamed");
+        assertEquals("Renamed", store.get(task.getId()).getName());
+
+        service.deleteTasks(List.of(task.getId()), 0);
+        assertNull(store.get(task.getId()));
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        database.put(new Task(1, "Slow"));
+        database.loadGate = new CountDownLatch(1);
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Task>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(readers.submit(() -> store.get(1)));
+            }
+            Thread.sleep(100);
+            database.loadGate.countDown();
+            for (Future<Task> read : reads) {
+                assertEquals("Slow", read.get(5, TimeUnit.SECONDS).getName());
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        assertEquals(1, database.loads.get());
+    }
+
+    /**
+     * Counts lookups reaching the underlying store, optionally holding them until released.
+     */
+    private static class CountingStore extends ConcurrentTaskStore {
+        final AtomicInteger loads = new AtomicInteger();
+        volatile CountDownLatch loadGate;
+
+        @Override
+        public Task get(int id) {
+            loads.incrementAndGet();
+            CountDownLatch gate = loadGate;
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.get(id);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.tdd;
+
+import com.example.demo.controller.EncodedTaskCache;
+import com.example.demo.controller.TaskController;
+import com.example.demo.model.Task;
+import com.example.demo.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodedTaskCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EncodedTaskCache cache = new EncodedTaskCache(objectMapper, 100);
+
+    @Test
+    void testSameVersionReusesBytesAndNewVersionReencodes() {
+        Task task = new Task(1, "Cached");
+
+        byte[] first = cache.json(task);
+        assertSame(first, cache.json(new Task(1, "Cached")));
+        assertEquals("{\"id\":1,\"name\":\"Cached\"}", new String(first, StandardCharsets.UTF_8));
+
+        byte[] renamed = cache.json(task.withName("Renamed"));
+        assertEquals("{\"id\":1,\"name\":\"Renamed\"}", new String(renamed, StandardCharsets.UTF_8));
+        cache.invalidate(1);
+        assertNotSame(renamed, cache.json(task.withName("Renamed")));
+    }
+
+    @Test
+    void testControllerServesCachedJsonOnlyWhenJsonIsPreferred() {
+        TaskService service = new TaskService();
+        Task task = service.addTask("Hot task");
+        TaskController controller = new TaskController(service, objectMapper, cache, null);
+
+        ResponseEntity<?> json = controller.getTask(task.getId(), request("application/json"));
+        assertSame(cache.json(task), json.getBody());
+
+        ResponseEntity<?> cbor = controller.getTask(task.getId(), request("application/cbor"));
+        assertEquals("Hot task", ((Task) cbor.getBody()).getName());
+
+        controller.updateTask(task.getId(), "Renamed", null);
+        byte[] renamed = (byte[]) controller.getTask(task.getId(), request(null)).getBody();
+        assertEquals("{\"id\":1,\"name\":\"Renamed\"}", new String(renamed, StandardCharsets.UTF_8));
+    }
+
+    private static ServletWebRequest request(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks/1");
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo.tdd;
+
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.TaskStats;
+import com.example.demo.model.Task;
+import com.example.demo.repository.JpaTaskStore;
+import com.example.demo.repository.SequenceIdAllocator;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs outside the test transaction so batching, bulk statements and commits behave as in the app.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaTaskStoreTest {
+
+    @SpyBean
+    private TaskRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JpaTaskStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        store = new JpaTaskStore(repository, entityManager, transactionManager, 50);
+    }
+
+    @Test
+    void testPutGetRenameAndRemove() {
+        store.put(new Task(1, "First"));
+        store.put(new Task(2, "Second"));
+        store.put(new Task(1, "Renamed"));
+
+        assertEquals("Renamed", store.get(1).getName());
+        assertEquals(2, store.size());
+        assertEquals(2, store.lastId());
+        assertEquals("Second", store.remove(2).getName());
+        assertNull(store.remove(2));
+        assertNull(store.get(2));
+    }
+
+    @Test
+    void testNewTasksAreInsertedWithoutAnUpdate() {
+        store.put(new Task(1, "First"));
+        store.put(new Task(2, "Second"));
+        verify(repository, never()).rename(anyInt(), any(), anyInt());
+
+        store.put(new Task(1, "First", 2));
+        verify(repository).rename(1, "First", 2);
+        // A version-1 task over an existing row, as a replica restoring a snapshot writes it
+        store.put(new Task(1, "Restored"));
+        assertEquals(1, store.get(1).getVersion());
+        assertEquals("Restored", store.get(1).getName());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testPutAllBatchesAndScansInPages() {
+        store.put(new Task(5, "Existing"));
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 1; id <= 1200; id++) {
+            tasks.add(new Task(id, "Task " + id));
+        }
+        store.putAll(tasks);
+
+        assertEquals(1200, store.size());
+        assertEquals("Task 5", store.get(5).getName());
+
+        List<Integer> ascending = new ArrayList<>();
+        store.ascending(0).forEachRemaining(task -> ascending.add(task.getId()));
+        assertEquals(1200, ascending.size());
+        assertEquals(1200, ascending.get(ascending.size() - 1));
+
+        List<Integer> latest = new ArrayList<>();
+        store.descending(4).forEachRemaining(task -> latest.add(task.getId()));
+        assertEquals(List.of(3, 2, 1), latest);
+    }
+
+    @Test
+    void testReplaceOnlyAtExpectedVersion() {
+        Task task = new Task(1, "First");
+        store.put(task);
+
+        assertTrue(store.replace(1, task.withName("Second")));
+        assertFalse(store.replace(1, task.withName("Stale")));
+        assertFalse(store.replace(1, new Task(99, "Missing", 2)));
+        assertEquals("Second", store.get(1).getName());
+        assertEquals(2, store.get(1).getVersion());
+    }
+
+    @Test
+    void testRemoveAllReportsOnlyPresentIds() {
+        store.putAll(List.of(new Task(1, "One"), new Task(2, "Two"), new Task(3, "Three")));
+
+        assertEquals(Set.of(1, 3), Set.copyOf(store.removeAll(List.of(1, 3, 99)).stream().map(Task::getId).toList()));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testServiceOnJpaWithPooledSequence() {
+        SequenceIdAllocator allocator = new SequenceIdAllocator(jdbcTemplate, "task_test_seq", 50, store.lastId());
+        TaskService service = new TaskService(store, allocator, new SimpleMeterRegistry());
+
+        List<BatchItemResult> created = service.addTasks(List.of("A", "B", "C"), 0);
+        Task single = service.addTask("D");
+        Set<Integer> ids = new HashSet<>();
+        created.forEach(result -> ids.add(result.getTask().getId()));
+        ids.add(single.getId());
+        assertEquals(4, ids.size());
+        assertEquals(4, service.getTaskCount());
+
+        List<Integer> toDelete = new ArrayList<>(ids);
+        toDelete.add(toDelete.get(0));
+        List<BatchItemResult> deleted = service.deleteTasks(toDelete, 0);
+        assertEquals(List.of(200, 200, 200, 200, 404), deleted.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals(0, service.getTaskCount());
+    }
+
+    @Test
+    void testSequenceStartsPastStoredIds() {
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 1; id <= 120; id++) {
+            tasks.add(new Task(id, "Task " + id));
+        }
+        store.putAll(tasks);
+        assertEquals(121, new SequenceIdAllocator(jdbcTemplate, "task_fresh_seq", 50, store.lastId()).next());
+
+        // A sequence left behind by rows written without it is moved past them
+        new SequenceIdAllocator(jdbcTemplate, "task_behind_seq", 50, 0).next();
+        store.put(new Task(300, "Written elsewhere"));
+        assertEquals(301, new SequenceIdAllocator(jdbcTemplate, "task_behind_seq", 50, store.lastId()).next());
+    }
+
+    @Test
+    void testCountIncludesWritesOfOtherProcesses() {
+        TaskService service = new TaskService(store, new SequenceIdAllocator(jdbcTemplate, "task_test_seq", 50, store.lastId()),
+            new SimpleMeterRegistry());
+        service.addTask("Ours");
+        // Another node sharing the database
+        new JpaTaskStore(repository, entityManager, transactionManager, 50).put(new Task(1000, "Theirs, a longer name"));
+
+        assertTrue(store.isShared());
+        assertEquals(2, service.getTaskCount());
+        TaskStats stats = service.getTaskStats();
+        assertEquals(2, stats.getTotal());
+        assertEquals(List.of(1L, 0L, 1L, 0L, 0L, 0L),
+            stats.getNameLengths().stream().map(TaskStats.NameLengthBucket::getCount).toList());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.tdd;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.MappedTaskStore;
+import com.example.demo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testTasksSurviveReopen() throws Exception {
+        Path log = dir.resolve("tasks.log");
+        try (MappedTaskStore store = new MappedTaskStore(log, 256, false)) {
+            for (int id = 1; id <= 50; id++) {
+                store.put(new Task(id, "Task " + id));
+            }
+            store.put(new Task(7, "Renamed ✓", 2));
+            assertEquals("Task 8", store.remove(8).getName());
+        }
+
+        try (MappedTaskStore reopened = new MappedTaskStore(log, 4096, false)) {
+            assertEquals(49, reopened.size());
+            assertEquals(50, reopened.lastId());
+            assertEquals("Renamed ✓", reopened.get(7).getName());
+            assertEquals(2, reopened.get(7).getVersion());
+            assertNull(reopened.get(8));
+
+            List<Integer> latest = new ArrayList<>();
+            reopened.descending(11).forEachRemaining(task -> latest.add(task.getId()));
+            assertEquals(List.of(10, 9, 7, 6, 5, 4, 3, 2, 1), latest);
+        }
+    }
+
+    @Test
+    void testTaskServiceContinuesIdSequenceAfterRestart() throws Exception {
+        Path log = dir.resolve("tasks.log");
+        try (MappedTaskStore store = new MappedTaskStore(log, 4096, false)) {
+            new TaskService(store).addTask("First");
+        }
+
+        try (MappedTaskStore store = new MappedTaskStore(log, 4096, false)) {
+            Task second = new TaskService(store).addTask("Second");
+            assertEquals(2, second.getId());
+        }
+    }
+}
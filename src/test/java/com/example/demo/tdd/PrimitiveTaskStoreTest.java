@@ -0,0 +1,72 @@
+package com.example.demo.tdd;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.PrimitiveTaskStore;
+import com.example.demo.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveTaskStoreTest {
+
+    private PrimitiveTaskStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new PrimitiveTaskStore(4);
+    }
+
+    @Test
+    void testPutGetAndRemoveAcrossResizes() {
+        for (int id = 1; id <= 1000; id++) {
+            store.put(new Task(id, "Task " + id));
+        }
+        for (int id = 2; id <= 1000; id += 2) {
+            assertEquals("Task " + id, store.remove(id).getName());
+        }
+
+        assertEquals(500, store.size());
+        assertEquals(1000, store.lastId());
+        for (int id = 1; id <= 1000; id++) {
+            Task task = store.get(id);
+            if (id % 2 == 0) {
+                assertNull(task);
+            } else {
+                assertEquals("Task " + id, task.getName());
+            }
+        }
+        assertNull(store.remove(2));
+    }
+
+    @Test
+    void testOrderedIteration() {
+        for (int id = 1; id <= 6; id++) {
+            store.put(new Task(id, "Task " + id));
+        }
+        store.remove(3);
+
+        List<Integer> ascending = new ArrayList<>();
+        store.ascending(1).forEachRemaining(task -> ascending.add(task.getId()));
+        List<Integer> descending = new ArrayList<>();
+        store.descending(5).forEachRemaining(task -> descending.add(task.getId()));
+
+        assertEquals(List.of(2, 4, 5, 6), ascending);
+        assertEquals(List.of(4, 2, 1), descending);
+        // A negative start begins at the first task instead of probing every negative ID
+        assertEquals(1, store.ascending(Integer.MIN_VALUE).next().getId());
+    }
+
+    @Test
+    void testTaskServiceUpdatesAreWrittenBack() {
+        TaskService taskService = new TaskService(store);
+        Task task = taskService.addTask("Old Name");
+
+        taskService.updateTask(task.getId(), "New Name");
+
+        assertEquals("New Name", taskService.getTaskById(task.getId()).getName());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.tdd;
+
+import com.example.demo.config.ReactiveWebConfig;
+import com.example.demo.controller.ReactiveTaskHandler;
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReactiveTaskRoutesTest {
+
+    private TaskService taskService;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService();
+        client = WebTestClient.bindToRouterFunction(
+                new ReactiveWebConfig().taskRoutes(new ReactiveTaskHandler(taskService))).build();
+    }
+
+    @Test
+    void testAddAndGetTask() {
+        client.post().uri("/tasks?task=Reactive Task").exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.id").isEqualTo(1);
+
+        client.get().uri("/tasks/1").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Reactive Task");
+    }
+
+    @Test
+    void testErrorsMatchServletStatuses() {
+        client.post().uri("/tasks").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Missing required parameter: task");
+        client.get().uri("/tasks/0").exchange().expectStatus().isBadRequest();
+        client.get().uri("/tasks/42").exchange().expectStatus().isNotFound();
+        client.delete().uri("/tasks/42").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void testSharedStoreListHasNoValidators() {
+        ConcurrentTaskStore shared = new ConcurrentTaskStore() {
+            @Override
+            public boolean isShared() {
+                return true;
+            }
+        };
+        WebTestClient sharedClient = WebTestClient.bindToRouterFunction(
+                new ReactiveWebConfig().taskRoutes(new ReactiveTaskHandler(new TaskService(shared)))).build();
+
+        sharedClient.get().uri("/tasks").header("If-None-Match", "*").exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("ETag")
+                .expectHeader().doesNotExist("Last-Modified");
+    }
+
+    @Test
+    void testConditionalGetAndIfMatch() {
+        taskService.addTask("Cached");
+
+        String etag = client.get().uri("/tasks/1").exchange()
+                .expectStatus().isOk()
+                .returnResult(Task.class).getResponseHeaders().getETag();
+        client.get().uri("/tasks/1").ifNoneMatch(etag).exchange().expectStatus().isNotModified();
+        String listTag = client.get().uri("/tasks").exchange()
+                .returnResult(Task.class).getResponseHeaders().getETag();
+        client.get().uri("/tasks").ifNoneMatch(listTag).exchange().expectStatus().isNotModified();
+
+        client.put().uri("/tasks/1?task=Renamed").header("If-Match", etag).exchange().expectStatus().isOk();
+        client.put().uri("/tasks/1?task=Again").header("If-Match", etag).exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody().jsonPath("$.error").isEqualTo("Task with ID 1 has been modified");
+        client.get().uri("/tasks").ifNoneMatch(listTag).exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void testListPageAndStream() {
+        for (int i = 1; i <= 3; i++) {
+            taskService.addTask("Task " + i);
+        }
+
+        client.get().uri("/tasks").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(3);
+        client.get().uri("/tasks?limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().value("Link", containsString("after=2&limit=2"));
+        // Nothing between the bounds: an empty last page, even at the int limits
+        client.get().uri("/tasks?after=2&before=3&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("Link")
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+        client.get().uri("/tasks?after=" + Integer.MAX_VALUE + "&before=" + Integer.MIN_VALUE + "&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+
+        List<Task> streamed = client.get().uri("/tasks").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Task.class).getResponseBody().collectList().block();
+        assertEquals(List.of(1, 2, 3), streamed.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void testListNegotiatesBinaryFormats() throws Exception {
+        taskService.addTask("First");
+        taskService.addTask("Second");
+
+        for (String format : List.of("application/cbor", "application/x-jackson-smile")) {
+            byte[] body = client.get().uri("/tasks").header("Accept", format + ", application/json;q=0.5").exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(format)
+                    .expectBody(byte[].class).returnResult().getResponseBody();
+            ObjectMapper mapper = format.endsWith("cbor") ? new CBORMapper() : new SmileMapper();
+            assertEquals("Second", mapper.readTree(body).get(1).get("name").asText());
+        }
+        client.get().uri("/tasks").header("Accept", "application/json, application/cbor;q=0.5").exchange()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void testBatchCreateFromNdjsonInChunks() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            body.append("\"Batch ").append(i).append("\"\n");
+        }
+
+        client.post().uri("/tasks/batch").contentType(MediaType.APPLICATION_NDJSON).bodyValue(body.toString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(2500)
+                .jsonPath("$[2499].index").isEqualTo(2499);
+        assertEquals(2500, taskService.getTaskCount());
+    }
+}
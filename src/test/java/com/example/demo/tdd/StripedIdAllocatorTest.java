@@ -0,0 +1,64 @@
+package com.example.demo.tdd;
+
+import com.example.demo.service.StripedIdAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedIdAllocatorTest {
+
+    @Test
+    void testIdsAreUniqueAcrossThreadsAndAboveLastId() throws Exception {
+        StripedIdAllocator allocator = new StripedIdAllocator(100, 16);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                done.add(threads.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        assertTrue(ids.add(allocator.next()));
+                    }
+                    int[] batch = new int[50];
+                    allocator.next(batch);
+                    for (int id : batch) {
+                        assertTrue(ids.add(id));
+                    }
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+
+        assertEquals(8 * 1050, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id > 100));
+    }
+
+    @Test
+    void testNodesAllocateDisjointIds() {
+        Set<Integer> seen = new HashSet<>();
+        for (int node = 0; node < 3; node++) {
+            StripedIdAllocator allocator = new StripedIdAllocator(0, 4, node, 3);
+            for (int i = 0; i < 100; i++) {
+                int id = allocator.next();
+                assertEquals(node, (id - 1) % 3);
+                assertTrue(seen.add(id));
+            }
+        }
+        // Restarting node 1 after ID 7 continues with its next ID (2, 5, 8, ...)
+        assertEquals(8, new StripedIdAllocator(7, 1, 1, 3).next());
+        assertThrows(IllegalArgumentException.class, () -> new StripedIdAllocator(0, 4, 3, 3));
+    }
+}
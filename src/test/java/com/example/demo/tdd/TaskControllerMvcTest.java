@@ -1,18 +1,35 @@
 package com.example.demo.tdd;
 
+import com.example.demo.dto.TaskSearchPage;
+import com.example.demo.exception.TaskVersionConflictException;
 import com.example.demo.model.Task;
+import com.example.demo.repository.ModificationStamp;
+import com.example.demo.service.TaskEventBroadcaster;
+import com.example.demo.service.TaskEventLog;
 import com.example.demo.service.TaskService;
+import com.example.demo.service.TaskStatistics;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest
@@ -24,6 +41,20 @@ class TaskControllerMvcTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @MockBean
+    private TaskEventLog taskEventLog;
+
+    private final ModificationStamp stamp = new ModificationStamp();
+
+    @BeforeEach
+    void setUp() {
+        when(taskService.getModificationStamp()).thenReturn(stamp);
+        when(taskEventLog.eventId(anyLong())).thenAnswer(call -> "e-" + call.getArgument(0));
+    }
+
     @Test
     void testGetTasks() throws Exception {
         when(taskService.getTasks()).thenReturn(
@@ -35,13 +66,162 @@ class TaskControllerMvcTest {
                 .andExpect(jsonPath("$[0].name").value("Task 1"));
     }
 
+    @Test
+    void testGetTaskStats() throws Exception {
+        TaskStatistics statistics = new TaskStatistics();
+        statistics.loaded(new Task(1, "Task 1"));
+        statistics.loaded(new Task(2, "Task 2"));
+        statistics.created(new Task(3, "A longer name"));
+        when(taskService.getTaskStats()).thenReturn(statistics.snapshot());
+
+        mockMvc.perform(get("/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.created.count").value(1))
+                .andExpect(jsonPath("$.nameLengths[0].maxLength").value(8))
+                .andExpect(jsonPath("$.nameLengths[0].count").value(2));
+    }
+
+    @Test
+    void testGetTasksAsCbor() throws Exception {
+        when(taskService.getTasks()).thenReturn(
+                Arrays.asList(new Task(1, "Task 1"), new Task(2, "Task 2"))
+        );
+
+        byte[] body = mockMvc.perform(get("/tasks").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("Task 2", new CBORMapper().readTree(body).get(1).get("name").asText());
+    }
+
     @Test
     void testAddTask() throws Exception {
         Task task = new Task(1, "New Task");
         when(taskService.addTask("New Task")).thenReturn(task);
 
+        when(taskEventLog.lastSequence()).thenReturn(7L);
+
         mockMvc.perform(post("/tasks?task=New Task"))
                 .andExpect(status().isCreated())
+                .andExpect(header().string("X-Task-Log-Position", "e-7"))
                 .andExpect(jsonPath("$.name").value("New Task"));
     }
+
+    @Test
+    void testGetTaskPageAddsNextLink() throws Exception {
+        when(taskService.getTasksAfter(0, 2)).thenReturn(
+                Arrays.asList(new Task(1, "Task 1"), new Task(2, "Task 2"))
+        );
+
+        mockMvc.perform(get("/tasks?limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", containsString("after=2&limit=2")))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    void testEmptyRangeIsAnEmptyPage() throws Exception {
+        when(taskService.getTasksBetween(2, 3, 2)).thenReturn(List.of());
+
+        mockMvc.perform(get("/tasks?after=2&before=3&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Link"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void testNegativePageCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/tasks?after=-1&limit=2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("After must not be negative"));
+    }
+
+    @Test
+    void testSearchReportsTotalAndNextLink() throws Exception {
+        when(taskService.isSearchEnabled()).thenReturn(true);
+        when(taskService.searchTasks("write rep", 0, 2)).thenReturn(new TaskSearchPage(
+                Arrays.asList(new Task(9, "Write report"), new Task(4, "Write reply")), 3));
+
+        mockMvc.perform(get("/tasks/search").param("q", "write rep").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(header().string("Link", containsString("q=write+rep&offset=2&limit=2")))
+                .andExpect(jsonPath("$[0].id").value(9));
+    }
+
+    @Test
+    void testSearchIsNotFoundWhenDisabled() throws Exception {
+        mockMvc.perform(get("/tasks/search").param("q", "write"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUnchangedTasksAnswer304WithoutReadingTheStore() throws Exception {
+        when(taskService.getTaskById(1)).thenReturn(new Task(1, "Task 1"));
+
+        String listTag = mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/tasks").header("If-None-Match", listTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(taskService, times(1)).getTasks();
+
+        String taskTag = mockMvc.perform(get("/tasks/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/tasks/1").header("If-None-Match", taskTag))
+                .andExpect(status().isNotModified());
+
+        stamp.touch();
+        mockMvc.perform(get("/tasks").header("If-None-Match", listTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testSharedStoreListHasNoValidators() throws Exception {
+        when(taskService.isShared()).thenReturn(true);
+
+        mockMvc.perform(get("/tasks").header("If-None-Match", "*"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"));
+        verify(taskService, times(1)).getTasks();
+    }
+
+    @Test
+    void testUpdateWithStaleIfMatchIsRejected() throws Exception {
+        Task task = new Task(1, "Task 1");
+        when(taskService.getTaskById(1)).thenReturn(task);
+        String etag = mockMvc.perform(get("/tasks/1")).andReturn().getResponse().getHeader("ETag");
+
+        when(taskService.updateTask(1, "Renamed", 1)).thenReturn(new Task(1, "Renamed", 2));
+        mockMvc.perform(put("/tasks/1?task=Renamed").header("If-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag.replace(".1\"", ".2\"")));
+
+        when(taskService.updateTask(1, "Again", 1)).thenThrow(new TaskVersionConflictException(1));
+        mockMvc.perform(put("/tasks/1?task=Again").header("If-Match", etag))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Task with ID 1 has been modified"));
+        mockMvc.perform(put("/tasks/1?task=Again").header("If-Match", "\"not-ours\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testStreamTasksAsNdjson() throws Exception {
+        when(taskService.iterateTasks()).thenReturn(
+                List.of(new Task(1, "Task 1"), new Task(2, "Task 2")).iterator()
+        );
+
+        MvcResult result = mockMvc.perform(get("/tasks").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":1,\"name\":\"Task 1\"}\n{\"id\":2,\"name\":\"Task 2\"}\n"));
+    }
 }
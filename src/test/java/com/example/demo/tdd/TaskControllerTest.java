@@ -2,10 +2,14 @@ package com.example.demo.tdd;
 
 import com.example.demo.controller.TaskController;
 import com.example.demo.model.Task;
+import com.example.demo.repository.ModificationStamp;
 import com.example.demo.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +26,7 @@ class TaskControllerTest {
     void setUp() {
         taskService = mock(TaskService.class);
         taskController = new TaskController(taskService);
+        when(taskService.getModificationStamp()).thenReturn(new ModificationStamp());
     }
 
     @Test
@@ -30,8 +35,9 @@ class TaskControllerTest {
                 Arrays.asList(new Task(1, "Task 1"), new Task(2, "Task 2"))
         );
 
-        ResponseEntity<List<Task>> response = taskController.getTasks();
-        List<Task> tasks = response.getBody();
+        ResponseEntity<?> response = taskController.getTasks(
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/tasks"), new MockHttpServletResponse()));
+        List<?> tasks = (List<?>) response.getBody();
 
         assertEquals(2, tasks.size());
         assertEquals(200, response.getStatusCode().value());
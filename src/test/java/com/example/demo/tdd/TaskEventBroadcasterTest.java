@@ -0,0 +1,146 @@
+package com.example.demo.tdd;
+
+import com.example.demo.config.ReactiveWebConfig;
+import com.example.demo.controller.ReactiveTaskEventHandler;
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.service.CounterIdAllocator;
+import com.example.demo.service.TaskEventBroadcaster;
+import com.example.demo.service.TaskEventLog;
+import com.example.demo.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventBroadcasterTest {
+
+    private final TaskEventLog log = new TaskEventLog(8);
+    private final TaskService service = new TaskService(new ConcurrentTaskStore(), new CounterIdAllocator(1),
+        new SimpleMeterRegistry(), log);
+    private final TaskEventBroadcaster broadcaster = new TaskEventBroadcaster(log, 2, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.close();
+    }
+
+    @Test
+    void testMutationsAreStreamedInOrder() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(null, sink);
+
+        Task task = service.addTask("Write report");
+        service.updateTask(task.getId(), "Write summary");
+        service.deleteTask(task.getId());
+
+        assertEquals("created 1 Write report v1", sink.next());
+        assertEquals("updated 1 Write summary v2", sink.next());
+        assertEquals("deleted 1", sink.next());
+    }
+
+    @Test
+    void testResumesAfterLastEventIdOrResetsWhenUnknown() throws Exception {
+        service.addTask("First");
+        service.addTask("Second");
+        String afterFirst = log.eventId(1);
+
+        RecordingSink resumed = new RecordingSink();
+        broadcaster.subscribe(afterFirst, resumed);
+        assertEquals("created 2 Second v1", resumed.next());
+
+        RecordingSink unknown = new RecordingSink();
+        broadcaster.subscribe("0-1", unknown);
+        assertEquals("reset " + log.eventId(2), unknown.next());
+        service.addTask("Third");
+        assertEquals("created 3 Third v1", unknown.next());
+    }
+
+    @Test
+    void testSubscriberThatFallsBehindIsResetAndDisconnected() throws Exception {
+        RecordingSink paused = new RecordingSink();
+        paused.demand = 0;
+        TaskEventBroadcaster.Subscription subscription = broadcaster.subscribe(null, paused);
+
+        for (int i = 0; i < log.capacity() + 1; i++) {
+            service.addTask("Task " + i);
+        }
+        paused.demand = Long.MAX_VALUE;
+        subscription.wake();
+
+        assertEquals("reset " + log.eventId(log.capacity() + 1), paused.next());
+        assertEquals("closed", paused.next());
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void testReactiveStreamResumesFromLastEventId() {
+        service.addTask("Streamed");
+        WebTestClient client = WebTestClient.bindToRouterFunction(
+            new ReactiveWebConfig().taskEventRoutes(new ReactiveTaskEventHandler(broadcaster))).build();
+
+        ServerSentEvent<String> event = client.get().uri("/tasks/events")
+            .header("Last-Event-ID", log.eventId(0))
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+            .getResponseBody()
+            .blockFirst(Duration.ofSeconds(5));
+
+        assertNotNull(event);
+        assertEquals("created", event.event());
+        assertEquals(log.eventId(1), event.id());
+        assertEquals("{\"id\":1,\"name\":\"Streamed\",\"version\":1}", event.data());
+    }
+
+    private static final class RecordingSink implements TaskEventBroadcaster.Sink {
+        private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        volatile long demand = Long.MAX_VALUE;
+
+        String next() throws InterruptedException {
+            String item = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(item, "Nothing delivered");
+            return item;
+        }
+
+        @Override
+        public long demand() {
+            return demand;
+        }
+
+        @Override
+        public void send(List<TaskEvent> events) {
+            for (TaskEvent event : events) {
+                received.add(event.getType() == TaskEvent.Type.DELETED
+                    ? "deleted " + event.getId()
+                    : event.getEventName() + " " + event.getId() + " " + event.getName() + " v" + event.getVersion());
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+            received.add("heartbeat");
+        }
+
+        @Override
+        public void reset(String resumeId) {
+            received.add("reset " + resumeId);
+        }
+
+        @Override
+        public void close() {
+            received.add("closed");
+        }
+    }
+}
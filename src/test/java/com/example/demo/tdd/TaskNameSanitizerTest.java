@@ -0,0 +1,77 @@
+package com.example.demo.tdd;
+
+import com.example.demo.service.TaskNameSanitizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskNameSanitizerTest {
+
+    private static final Pattern DANGEROUS_PATTERN = Pattern.compile("[<>\"'&;]");
+    private static final Pattern HTML_TAG_PATTERN = Pattern.compile("<[^>]*>");
+    private static final char[] ALPHABET = {'a', 'Z', '7', ' ', '\t', '\n', '\u0000', '<', '>', '"', '\'', '&', ';', '/', '_', 'é', ' '};
+
+    /**
+     * The regex pipeline TaskService used before the single-pass scanner.
+     */
+    private static String regexSanitize(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Task name cannot be null");
+        }
+        String trimmed = name.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Task name cannot be empty");
+        }
+        if (trimmed.length() > TaskNameSanitizer.MAX_TASK_NAME_LENGTH) {
+            throw new IllegalArgumentException("Task name too long (max " + TaskNameSanitizer.MAX_TASK_NAME_LENGTH + " chars)");
+        }
+        String sanitized = HTML_TAG_PATTERN.matcher(trimmed).replaceAll("");
+        sanitized = DANGEROUS_PATTERN.matcher(sanitized).replaceAll("_");
+        if (sanitized.trim().isEmpty()) {
+            throw new IllegalArgumentException("Task name contains only invalid characters");
+        }
+        return sanitized;
+    }
+
+    private static String outcome(UnaryOperator<String> sanitizer, String name) {
+        try {
+            return "ok:" + sanitizer.apply(name);
+        } catch (IllegalArgumentException e) {
+            return "error:" + e.getMessage();
+        }
+    }
+
+    @Test
+    void testMatchesRegexPipelineOnRandomInputs() {
+        Random random = new Random(42);
+        for (int run = 0; run < 20_000; run++) {
+            char[] chars = new char[random.nextInt(run % 100 == 0 ? 300 : 24)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            String name = new String(chars);
+            assertEquals(outcome(TaskNameSanitizerTest::regexSanitize, name),
+                    outcome(TaskNameSanitizer::sanitize, name), () -> "input: " + name);
+        }
+    }
+
+    @Test
+    void testKnownCases() {
+        assertEquals(" x", TaskNameSanitizer.sanitize(" <b> x "));
+        assertEquals("a_b", TaskNameSanitizer.sanitize("a<b"));
+        assertEquals("_", TaskNameSanitizer.sanitize("<<>>"));
+        assertEquals("Tom_s __ Jerry", TaskNameSanitizer.sanitize("Tom's <i>&&</i> Jerry"));
+        assertThrows(IllegalArgumentException.class, () -> TaskNameSanitizer.sanitize("<script>"));
+        assertThrows(IllegalArgumentException.class, () -> TaskNameSanitizer.sanitize(null));
+    }
+
+    @Test
+    void testCleanNameIsReturnedWithoutCopy() {
+        String clean = "Already clean";
+        assertSame(clean, TaskNameSanitizer.sanitize(clean));
+    }
+}
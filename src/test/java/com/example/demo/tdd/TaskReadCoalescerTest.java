@@ -0,0 +1,129 @@
+package com.example.demo.tdd;
+
+import com.example.demo.controller.TaskController;
+import com.example.demo.controller.TaskReadCoalescer;
+import com.example.demo.model.Task;
+import com.example.demo.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskReadCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testConcurrentIdenticalReadsShareOneComputation() throws Exception {
+        TaskReadCoalescer coalescer = coalescer(Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        TaskReadCoalescer.Encoded result = new TaskReadCoalescer.Encoded(null, new byte[]{1});
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<TaskReadCoalescer.Encoded>> reads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            reads.add(pool.submit(() -> coalescer.get("tasks", 7, () -> {
+                computations.incrementAndGet();
+                await(release);
+                return result;
+            })));
+        }
+        while (count("shared") < 7) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Future<TaskReadCoalescer.Encoded> read : reads) {
+            assertSame(result, read.get());
+        }
+        pool.shutdown();
+        assertEquals(1, computations.get());
+        assertEquals(1, count("computed"));
+
+        // Finished and no window: the next read computes again
+        coalescer.get("tasks", 7, () -> result);
+        assertEquals(2, count("computed"));
+    }
+
+    @Test
+    void testWindowReusesResultsUntilTheStoreChanges() {
+        TaskReadCoalescer coalescer = coalescer(Duration.ofMinutes(1));
+        TaskReadCoalescer.Encoded first = new TaskReadCoalescer.Encoded(null, new byte[]{1});
+        TaskReadCoalescer.Encoded second = new TaskReadCoalescer.Encoded(null, new byte[]{2});
+
+        assertSame(first, coalescer.get("tasks", 1, () -> first));
+        assertSame(first, coalescer.get("tasks", 1, () -> second));
+        assertSame(second, coalescer.get("tasks", 2, () -> second));
+        assertSame(second, coalescer.get("tasks/1", 1, () -> second));
+        assertEquals(1, count("shared"));
+    }
+
+    @Test
+    void testFailuresReachWaitersButAreNotReused() {
+        TaskReadCoalescer coalescer = coalescer(Duration.ofMinutes(1));
+        assertThrows(IllegalArgumentException.class, () -> coalescer.get("tasks/0", 1, () -> {
+            throw new IllegalArgumentException("ID must be at least 1");
+        }));
+        TaskReadCoalescer.Encoded recovered = new TaskReadCoalescer.Encoded(null, new byte[0]);
+        assertSame(recovered, coalescer.get("tasks/0", 1, () -> recovered));
+    }
+
+    @Test
+    void testControllerSharesJsonThatMatchesTheConverter() {
+        TaskService service = new TaskService();
+        Task task = service.addTask("Popular");
+        TaskController controller = new TaskController(service, new ObjectMapper(), null, null,
+            coalescer(Duration.ofMinutes(1)));
+
+        byte[] one = (byte[]) controller.getTask(task.getId(), request("/tasks/1")).getBody();
+        assertSame(one, controller.getTask(task.getId(), request("/tasks/1")).getBody());
+        assertEquals("{\"id\":1,\"name\":\"Popular\"}", new String(one, StandardCharsets.UTF_8));
+
+        ResponseEntity<?> list = controller.getTasks(request("/tasks"));
+        assertEquals("[{\"id\":1,\"name\":\"Popular\"}]", new String((byte[]) list.getBody(), StandardCharsets.UTF_8));
+
+        // A write starts a new flight, so the rename is visible at once despite the window
+        controller.updateTask(task.getId(), "Renamed", null);
+        byte[] renamed = (byte[]) controller.getTask(task.getId(), request("/tasks/1")).getBody();
+        assertEquals("{\"id\":1,\"name\":\"Renamed\"}", new String(renamed, StandardCharsets.UTF_8));
+        byte[] renamedList = (byte[]) controller.getTasks(request("/tasks")).getBody();
+        assertEquals("[{\"id\":1,\"name\":\"Renamed\"}]", new String(renamedList, StandardCharsets.UTF_8));
+    }
+
+    private TaskReadCoalescer coalescer(Duration window) {
+        TaskReadCoalescer coalescer = new TaskReadCoalescer(window, 100);
+        coalescer.bindTo(registry);
+        return coalescer;
+    }
+
+    private double count(String outcome) {
+        return registry.get("tasks.reads.coalesced").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ServletWebRequest request(String uri) {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.tdd;
+
+import com.example.demo.dto.TaskSearchPage;
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.service.TaskSearchIndex;
+import com.example.demo.service.TaskService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private final TaskService service = new TaskService(new ConcurrentTaskStore(), new TaskSearchIndex());
+
+    @Test
+    void testExactMatchesRankBeforePrefixMatchesNewestFirst() {
+        Task report = service.addTask("Write report");
+        Task reports = service.addTask("write REPORTS today");
+        Task reportLater = service.addTask("Report: write it");
+        service.addTask("Read report");
+
+        TaskSearchPage page = service.searchTasks("write report", 0, 10);
+
+        assertEquals(3, page.getTotal());
+        assertEquals(List.of(reportLater.getId(), report.getId(), reports.getId()), ids(page));
+        // Trailing whitespace ends the last word, so it no longer matches as a prefix
+        assertEquals(2, service.searchTasks("write report ", 0, 10).getTotal());
+    }
+
+    @Test
+    void testIndexFollowsUpdatesAndDeletes() {
+        Task task = service.addTask("Buy milk");
+        service.addTasks(List.of("Buy bread", "Sell car"), 0);
+
+        service.updateTask(task.getId(), "Buy oat milk");
+        assertEquals(List.of(task.getId()), ids(service.searchTasks("oat", 0, 10)));
+        assertEquals(3, service.searchTasks("buy", 0, 10).getTotal() + service.searchTasks("sell", 0, 10).getTotal());
+
+        service.deleteTask(task.getId());
+        assertEquals(0, service.searchTasks("milk", 0, 10).getTotal());
+        service.deleteTasks(List.of(task.getId() + 1), 0);
+        assertEquals(0, service.searchTasks("bread", 0, 10).getTotal());
+    }
+
+    @Test
+    void testPagesByRank() {
+        for (int i = 0; i < 25; i++) {
+            service.addTask("Task " + i);
+        }
+
+        TaskSearchPage second = service.searchTasks("task", 10, 10);
+        TaskSearchPage last = service.searchTasks("task", 20, 10);
+
+        assertEquals(25, second.getTotal());
+        assertEquals("Task 14", second.getTasks().get(0).getName());
+        assertEquals(5, last.getTasks().size());
+        assertEquals("Task 0", last.getTasks().get(4).getName());
+        assertTrue(service.searchTasks("task", 30, 10).getTasks().isEmpty());
+    }
+
+    @Test
+    void testStaleVersionsAndBlankQueries() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.put(new Task(1, "Newer name", 3));
+        index.put(new Task(1, "Older name", 2));
+
+        assertEquals(0, index.search("older", 0, 10).getTotal());
+        assertEquals(1, index.search("newer", 0, 10).getTotal());
+        assertThrows(IllegalArgumentException.class, () -> index.search(" -- ", 0, 10));
+    }
+
+    @Test
+    void testRemovalFreesSlotsAndTerms() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        for (int id = 1; id <= 1000; id++) {
+            index.put(new Task(id, "Task " + id));
+        }
+        for (int id = 1; id <= 1000; id += 2) {
+            index.remove(id);
+        }
+
+        assertEquals(500, index.size());
+        assertEquals(500, index.search("task", 0, 10).getTotal());
+        assertEquals(0, index.search("999", 0, 10).getTotal());
+        // Terms freed by the removals are handed out again
+        index.put(new Task(1, "Renamed 2"));
+        assertEquals(2, index.search("2 ", 0, 10).getTotal());
+        assertEquals(1, index.search("renamed", 0, 10).getTotal());
+    }
+
+    @Test
+    void testSearchIsOffWithoutAnIndex() {
+        TaskService plain = new TaskService(new ConcurrentTaskStore());
+        plain.addTask("Write report");
+
+        assertFalse(plain.isSearchEnabled());
+        assertThrows(IllegalStateException.class, () -> plain.searchTasks("write", 0, 10));
+        // Name lengths do not depend on the index
+        assertEquals(1, plain.getTaskStats().getNameLengths().get(1).getCount());
+    }
+
+    private static List<Integer> ids(TaskSearchPage page) {
+        return page.getTasks().stream().map(Task::getId).toList();
+    }
+}
@@ -1,11 +1,29 @@
 package com.example.demo.tdd;
 
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.TaskEvent;
+import com.example.demo.dto.TaskStats;
+import com.example.demo.dto.TaskUpdateRequest;
+import com.example.demo.exception.TaskVersionConflictException;
 import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.PrimitiveTaskStore;
+import com.example.demo.service.CounterIdAllocator;
+import com.example.demo.service.TaskEventLog;
+import com.example.demo.service.TaskSearchIndex;
 import com.example.demo.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,6 +65,132 @@ class TaskServiceTest {
         assertEquals("New Name", updated.getName());
     }
 
+    @Test
+    void testUpdateBumpsVersionAndHonoursExpectedVersion() {
+        // Primitive store hands out copies, so the version must round-trip through the store
+        TaskService service = new TaskService(new PrimitiveTaskStore(16));
+        Task task = service.addTask("Draft");
+        long stampBefore = service.getModificationStamp().count();
+
+        assertEquals(1, task.getVersion());
+        assertEquals(2, service.updateTask(task.getId(), "Second", 1).getVersion());
+        assertEquals(2, service.getTaskById(task.getId()).getVersion());
+        assertTrue(service.getModificationStamp().count() > stampBefore);
+
+        assertThrows(TaskVersionConflictException.class, () -> service.updateTask(task.getId(), "Stale", 1));
+        assertEquals("Second", service.getTaskById(task.getId()).getName());
+    }
+
+    @Test
+    void testConcurrentUpdatesAreNotLost() throws Exception {
+        Task task = taskService.addTask("Hot");
+        Task before = taskService.getTaskById(task.getId());
+        int threads = 8;
+        int updatesPerThread = 500;
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int writer = t;
+                done.add(writers.submit(() -> {
+                    for (int i = 0; i < updatesPerThread; i++) {
+                        taskService.updateTask(task.getId(), "Writer " + writer);
+                    }
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } finally {
+            writers.shutdown();
+        }
+
+        assertEquals(1 + threads * updatesPerThread, taskService.getTaskById(task.getId()).getVersion());
+        // Instances already handed out are never changed by later updates
+        assertEquals("Hot", before.getName());
+        assertEquals(1, before.getVersion());
+    }
+
+    @Test
+    void testDeleteRacingCreateIsPublishedLast() throws Exception {
+        TaskEventLog log = new TaskEventLog(1 << 14);
+        TaskService service = new TaskService(new ConcurrentTaskStore(), new CounterIdAllocator(1),
+            new SimpleMeterRegistry(), log, new TaskSearchIndex());
+        int tasks = 2000;
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> creates = workers.submit(() -> {
+                for (int i = 0; i < tasks; i++) {
+                    service.addTask("Task " + i);
+                }
+            });
+            // Deletes every odd ID as soon as it exists, right behind the create
+            Future<?> deletes = workers.submit(() -> {
+                for (int id = 1; id <= tasks; id += 2) {
+                    while (!service.deleteTask(id)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            creates.get();
+            deletes.get();
+        } finally {
+            workers.shutdown();
+        }
+
+        Map<Integer, List<TaskEvent.Type>> history = history(log);
+        for (int id = 1; id <= tasks; id++) {
+            // A create that lost the race to its delete is dropped rather than delivered after it
+            List<TaskEvent.Type> types = history.get(id);
+            assertEquals(id % 2 == 1 ? TaskEvent.Type.DELETED : TaskEvent.Type.CREATED,
+                types.get(types.size() - 1), "last event of task " + id);
+            assertEquals(id % 2, types.stream().filter(TaskEvent.Type.DELETED::equals).count(),
+                "deletes of task " + id);
+        }
+        assertEquals(tasks / 2, service.getTaskCount());
+        assertEquals(tasks / 2, service.searchTasks("task", 0, 1).getTotal());
+        assertEquals(tasks / 2, service.getTaskStats().getNameLengths().stream()
+            .mapToLong(TaskStats.NameLengthBucket::getCount).sum());
+    }
+
+    @Test
+    void testRenameRacingDeletePublishesOneDelete() throws Exception {
+        TaskEventLog log = new TaskEventLog(1 << 14);
+        TaskService service = new TaskService(new ConcurrentTaskStore(), new CounterIdAllocator(1),
+            new SimpleMeterRegistry(), log, new TaskSearchIndex());
+        int tasks = 1000;
+        for (int i = 0; i < tasks; i++) {
+            service.addTask("Task " + i);
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> renames = workers.submit(() -> {
+                for (int round = 0; round < 3; round++) {
+                    for (int id = 1; id <= tasks; id++) {
+                        service.updateTask(id, "Renamed " + id);
+                    }
+                }
+            });
+            Future<?> deletes = workers.submit(() -> {
+                for (int id = 1; id <= tasks; id++) {
+                    assertTrue(service.deleteTask(id));
+                }
+            });
+            renames.get();
+            deletes.get();
+        } finally {
+            workers.shutdown();
+        }
+
+        Map<Integer, List<TaskEvent.Type>> history = history(log);
+        for (int id = 1; id <= tasks; id++) {
+            List<TaskEvent.Type> types = history.get(id);
+            assertEquals(1, types.stream().filter(TaskEvent.Type.DELETED::equals).count(), "deletes of task " + id);
+            assertEquals(TaskEvent.Type.DELETED, types.get(types.size() - 1), "last event of task " + id);
+        }
+        assertEquals(0, service.searchTasks("renamed", 0, 1).getTotal());
+    }
+
     @Test
     void testDeleteTask() {
         Task task = taskService.addTask("Do Homework");
@@ -55,4 +199,118 @@ class TaskServiceTest {
         assertTrue(deleted);
         assertTrue(taskService.getTasks().isEmpty());
     }
+
+    @Test
+    void testGetTasksAfterReturnsOrderedPage() {
+        for (int i = 0; i < 10; i++) {
+            taskService.addTask("Task " + i);
+        }
+
+        List<Task> firstPage = taskService.getTasksAfter(0, 4);
+        assertEquals(List.of(1, 2, 3, 4), firstPage.stream().map(Task::getId).toList());
+
+        List<Task> lastPage = taskService.getTasksAfter(8, 4);
+        assertEquals(List.of(9, 10), lastPage.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void testGetTasksAfterRejectsInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksAfter(0, 0));
+    }
+
+    @Test
+    void testRangeAndLatestTasks() {
+        for (int i = 0; i < 10; i++) {
+            taskService.addTask("Task " + i);
+        }
+
+        assertEquals(List.of(3, 4, 5), taskService.getTasksInRange(3, 5, 10).stream().map(Task::getId).toList());
+        assertEquals(List.of(3, 4, 5), taskService.getTasksBetween(2, 6, 10).stream().map(Task::getId).toList());
+        // Exclusive bounds with nothing between them, and bounds at the int limits
+        assertEquals(List.of(), taskService.getTasksBetween(5, 6, 10));
+        assertEquals(List.of(), taskService.getTasksBetween(Integer.MAX_VALUE, Integer.MIN_VALUE, 10));
+        assertEquals(List.of(), taskService.getTasksBetween(Integer.MAX_VALUE, Integer.MAX_VALUE, 10));
+        assertEquals(2, taskService.getTasksBetween(8, Integer.MAX_VALUE, 10).size());
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksBetween(5, 6, 0));
+        assertEquals(List.of(10, 9), taskService.getLatestTasks(2).stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void testAddTasksReservesContiguousIdsForValidNames() {
+        List<BatchItemResult> results = taskService.addTasks(List.of("First", "  ", "Second"), 0);
+
+        assertEquals(List.of(201, 400, 201), results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals(1, results.get(0).getTask().getId());
+        assertEquals(2, results.get(2).getTask().getId());
+        assertEquals(2, taskService.getTaskCount());
+    }
+
+    @Test
+    void testUpdateAndDeleteTasksReportPerItemStatus() {
+        Task task = taskService.addTask("Old Name");
+
+        List<BatchItemResult> updates = taskService.updateTasks(
+                List.of(new TaskUpdateRequest(task.getId(), "New Name"), new TaskUpdateRequest(99, "Missing")), 0);
+        List<BatchItemResult> deletes = taskService.deleteTasks(Arrays.asList(task.getId(), 0, 99), 0);
+
+        assertEquals(List.of(200, 404), updates.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("New Name", updates.get(0).getTask().getName());
+        assertEquals(List.of(200, 400, 404), deletes.stream().map(BatchItemResult::getStatus).toList());
+    }
+
+    @Test
+    void testStatisticsFollowEveryMutation() {
+        ConcurrentTaskStore store = new ConcurrentTaskStore();
+        TaskService service = new TaskService(store);
+        Task task = service.addTask("Short");
+        service.addTasks(List.of("A name of twenty-one", "Another"), 0);
+        service.updateTask(task.getId(), "Now a little longer");
+        service.deleteTasks(List.of(task.getId(), 99), 0);
+
+        TaskStats stats = service.getTaskStats();
+        assertEquals(2, service.getTaskCount());
+        assertEquals(2, stats.getTotal());
+        assertEquals(3, stats.getCreated().getCount());
+        assertEquals(1, stats.getUpdated().getCount());
+        assertEquals(1, stats.getDeleted().getCount());
+        // "Another" up to 8 characters, the 20-character name up to 32, the renamed one is gone
+        assertEquals(List.of(1L, 0L, 1L, 0L, 0L, 0L),
+            stats.getNameLengths().stream().map(TaskStats.NameLengthBucket::getCount).toList());
+
+        // A restart over the same store counts its tasks again, without search
+        TaskStats restarted = new TaskService(store).getTaskStats();
+        assertEquals(2, restarted.getTotal());
+        assertEquals(0, restarted.getCreated().getCount());
+        assertEquals(stats.getNameLengths().stream().map(TaskStats.NameLengthBucket::getCount).toList(),
+            restarted.getNameLengths().stream().map(TaskStats.NameLengthBucket::getCount).toList());
+    }
+
+    @Test
+    void testOperationsAreTimedAndRejectionsCounted() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskService metered = new TaskService(new ConcurrentTaskStore(), registry);
+
+        Task task = metered.addTask("Measured");
+        metered.getTaskById(task.getId());
+        assertThrows(IllegalArgumentException.class, () -> metered.addTask("<>"));
+
+        assertEquals(2, registry.get("tasks.operations").tag("operation", "add").timer().count());
+        assertEquals(1, registry.get("tasks.operations").tag("operation", "get").timer().count());
+        assertEquals(1, registry.get("tasks.sanitizer.rejections").counter().count());
+        assertEquals(1, registry.get("tasks.store.size").gauge().value());
+        assertTrue(registry.get("tasks.store.memory").gauge().value() > 0);
+    }
+
+    /**
+     * Event types per task as readers deliver them, superseded events left out.
+     */
+    private static Map<Integer, List<TaskEvent.Type>> history(TaskEventLog log) {
+        Map<Integer, List<TaskEvent.Type>> history = new HashMap<>();
+        for (TaskEvent event : log.readAfter(0, log.capacity())) {
+            if (!event.isSuperseded()) {
+                history.computeIfAbsent(event.getId(), id -> new ArrayList<>()).add(event.getType());
+            }
+        }
+        return history;
+    }
 }
@@ -0,0 +1,64 @@
+package com.example.demo.tdd;
+
+import com.example.demo.service.CounterIdAllocator;
+import com.example.demo.service.ShardedIdAllocator;
+import com.example.demo.service.TaskShardRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskShardRingTest {
+
+    @Test
+    void testShardsAreRoughlyEqual() {
+        TaskShardRing ring = new TaskShardRing(4, 128);
+        int[] owned = new int[4];
+        for (int id = 1; id <= 100_000; id++) {
+            owned[ring.ownerOf(id)]++;
+        }
+        for (int count : owned) {
+            assertTrue(count > 20_000 && count < 30_000, "Shard of " + count + " IDs");
+        }
+    }
+
+    @Test
+    void testAddingANodeOnlyMovesIdsToTheNewNode() {
+        TaskShardRing three = new TaskShardRing(3, 128);
+        TaskShardRing four = new TaskShardRing(4, 128);
+        int moved = 0;
+        for (int id = 1; id <= 100_000; id++) {
+            int before = three.ownerOf(id);
+            int after = four.ownerOf(id);
+            if (before != after) {
+                assertEquals(3, after);
+                moved++;
+            }
+        }
+        assertTrue(moved > 20_000 && moved < 30_000, moved + " IDs moved");
+    }
+
+    @Test
+    void testNodesAllocateDisjointIdsTheyOwn() {
+        TaskShardRing ring = new TaskShardRing(3, 64);
+        Set<Integer> seen = new HashSet<>();
+        for (int node = 0; node < 3; node++) {
+            ShardedIdAllocator allocator = new ShardedIdAllocator(new CounterIdAllocator(1), ring, node);
+            for (int i = 0; i < 100; i++) {
+                int id = allocator.next();
+                assertEquals(node, ring.ownerOf(id));
+                assertTrue(seen.add(id));
+            }
+            int[] batch = new int[500];
+            allocator.next(batch);
+            for (int id : batch) {
+                assertEquals(node, ring.ownerOf(id));
+                assertTrue(seen.add(id));
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> new ShardedIdAllocator(new CounterIdAllocator(1), ring, 3));
+    }
+}
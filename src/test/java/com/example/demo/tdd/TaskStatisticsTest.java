@@ -0,0 +1,86 @@
+package com.example.demo.tdd;
+
+import com.example.demo.dto.TaskStats;
+import com.example.demo.model.Task;
+import com.example.demo.service.TaskStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskStatisticsTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TaskStatistics statistics = new TaskStatistics(now::get);
+
+    @Test
+    void testCountStartsFromTheStoreAndFollowsCreatesAndDeletes() {
+        for (int id = 1; id <= 10; id++) {
+            statistics.loaded(new Task(id, "Loaded"));
+        }
+        statistics.created(tasks(11, 5));
+        for (int id = 1; id <= 3; id++) {
+            statistics.deleted(new Task(id, "Loaded"));
+        }
+        statistics.updated(new Task(4, "Loaded"), new Task(4, "Renamed to something longer", 2));
+
+        TaskStats stats = statistics.snapshot();
+        assertEquals(12, statistics.count());
+        assertEquals(12, stats.getTotal());
+        assertEquals(5, stats.getCreated().getCount());
+        assertEquals(3, stats.getDeleted().getCount());
+        assertEquals(1, stats.getUpdated().getCount());
+        // Six "Loaded" and five "Task 1x" up to 8 characters, the rename up to 32
+        assertEquals(List.of(11L, 0L, 1L, 0L, 0L, 0L), counts(stats));
+    }
+
+    @Test
+    void testStoreHistogramIsBucketedByLength() {
+        // Bounds are inclusive; anything over the last one lands in the open bucket
+        TaskStats stats = statistics.snapshot(7, Map.of(8, 2L, 9, 1L, 128, 3L, 129, 1L));
+        assertEquals(7, stats.getTotal());
+        assertEquals(List.of(2L, 1L, 0L, 0L, 3L, 1L), counts(stats));
+        assertNull(stats.getNameLengths().get(5).getMaxLength());
+    }
+
+    @Test
+    void testRatesAverageOverTicksAndDecayWhenIdle() {
+        // 50 creates in each of 12 five-second ticks: a steady 10 per second for a minute
+        for (int tick = 0; tick < 12; tick++) {
+            statistics.created(tasks(tick * 50 + 1, 50));
+            advanceSeconds(5);
+        }
+        TaskStats.Activity created = statistics.snapshot().getCreated();
+        assertEquals(10.0, created.getOneMinuteRate(), 0.01);
+        assertEquals(10.0, created.getFifteenMinuteRate(), 0.01);
+        assertEquals(0.0, statistics.snapshot().getDeleted().getOneMinuteRate());
+
+        advanceSeconds(60);
+        created = statistics.snapshot().getCreated();
+        // One idle minute takes the 1-minute average to 1/e and barely moves the 15-minute one
+        assertEquals(10.0 / Math.E, created.getOneMinuteRate(), 0.01);
+        assertTrue(created.getFifteenMinuteRate() > 9.0);
+        assertEquals(600, created.getCount());
+    }
+
+    private static List<Task> tasks(int firstId, int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int id = firstId; id < firstId + count; id++) {
+            tasks.add(new Task(id, "Task " + id));
+        }
+        return tasks;
+    }
+
+    private static List<Long> counts(TaskStats stats) {
+        return stats.getNameLengths().stream().map(TaskStats.NameLengthBucket::getCount).toList();
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.tdd;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.WalTaskStore;
+import com.example.demo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLoggedChangesSurviveACrash() throws Exception {
+        WalTaskStore store = open(true);
+        for (int id = 1; id <= 50; id++) {
+            store.put(new Task(id, "Task " + id));
+        }
+        assertTrue(store.replace(1, new Task(7, "Renamed ✓", 2)));
+        assertFalse(store.replace(1, new Task(7, "Stale", 2)));
+        assertEquals("Task 8", store.remove(8).getName());
+        assertEquals(Set.of(49, 50), Set.copyOf(store.removeAll(List.of(49, 50, 51)).stream().map(Task::getId).toList()));
+        // No close: nothing but the log is on disk
+
+        try (WalTaskStore recovered = open(true)) {
+            assertEquals(47, recovered.size());
+            assertEquals("Renamed ✓", recovered.get(7).getName());
+            assertEquals(2, recovered.get(7).getVersion());
+            assertNull(recovered.get(8));
+            // Deleted IDs are not handed out again
+            assertEquals(50, recovered.lastId());
+        }
+    }
+
+    @Test
+    void testSnapshotReplacesOlderLogsAndTailIsReplayedOverIt() throws Exception {
+        WalTaskStore store = open(true);
+        for (int id = 1; id <= 100; id++) {
+            store.put(new Task(id, "Task " + id));
+        }
+        store.snapshot();
+        assertNotNull(store.remove(100));
+        store.put(new Task(5, "After snapshot", 2));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            // The snapshot and the log written since it
+            assertEquals(2, files.count());
+        }
+        try (WalTaskStore recovered = open(true)) {
+            assertEquals(99, recovered.size());
+            assertEquals("After snapshot", recovered.get(5).getName());
+            assertNull(recovered.get(100));
+            assertEquals(100, recovered.lastId());
+        }
+    }
+
+    @Test
+    void testTornTailIsIgnored() throws Exception {
+        WalTaskStore store = open(false);
+        store.put(new Task(1, "Kept"));
+        store.close();
+        store = open(false);
+        store.put(new Task(2, "Also kept"));
+        store.snapshot();
+        store.put(new Task(3, "Kept in the log"));
+        store = null; // crash
+
+        Path newest;
+        try (Stream<Path> files = Files.list(dir)) {
+            newest = files.filter(file -> file.toString().endsWith(".log")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        // Wait for the background sync, then append half a frame as a crash mid-write would
+        Thread.sleep(200);
+        Files.write(newest, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (WalTaskStore recovered = open(false)) {
+            assertEquals(3, recovered.size());
+            assertEquals("Kept in the log", recovered.get(3).getName());
+            recovered.put(new Task(4, "Written after recovery"));
+        }
+        try (WalTaskStore reopened = open(false)) {
+            assertEquals(4, reopened.size());
+        }
+    }
+
+    @Test
+    void testConcurrentWritersShareCommitsAndAllSurvive() throws Exception {
+        int writers = 8;
+        int perWriter = 200;
+        try (WalTaskStore store = open(true)) {
+            TaskService service = new TaskService(store);
+            ExecutorService pool = Executors.newFixedThreadPool(writers);
+            List<Future<?>> done = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        Task task = service.addTask("Concurrent " + i);
+                        service.updateTask(task.getId(), "Updated " + i);
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+            pool.shutdown();
+        }
+
+        try (WalTaskStore recovered = open(true)) {
+            assertEquals(writers * perWriter, recovered.size());
+            recovered.ascending(0).forEachRemaining(task -> assertTrue(task.getName().startsWith("Updated ")));
+            Task second = new TaskService(recovered).addTask("After restart");
+            assertEquals(writers * perWriter + 1, second.getId());
+        }
+    }
+
+    private WalTaskStore open(boolean syncWrites) throws IOException {
+        return new WalTaskStore(new ConcurrentTaskStore(), dir, syncWrites, Duration.ZERO,
+            Duration.ofMillis(50), 4096, Duration.ofHours(1), 4);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.tdd;
+
+import com.example.demo.model.Task;
+import com.example.demo.repository.ConcurrentTaskStore;
+import com.example.demo.repository.TaskStore;
+import com.example.demo.repository.WriteBehindTaskStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindTaskStoreTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @Test
+    void testChangesCoalescePerTaskAndFlushOnClose() {
+        RecordingStore database = new RecordingStore();
+        WriteBehindTaskStore store = new WriteBehindTaskStore(new ConcurrentTaskStore(), database,
+            100, 100, NEVER, Duration.ofSeconds(1));
+
+        store.put(new Task(1, "First"));
+        store.put(new Task(1, "Renamed"));
+        store.put(new Task(2, "Second"));
+        store.put(new Task(3, "Gone"));
+        assertEquals("Gone", store.remove(3).getName());
+
+        // Reads are served from memory before anything reaches the database
+        assertEquals("Renamed", store.get(1).getName());
+        assertNull(store.get(3));
+        assertEquals(2, store.size());
+        assertEquals(0, database.size());
+
+        store.close();
+
+        assertEquals("Renamed", database.get(1).getName());
+        assertEquals("Second", database.get(2).getName());
+        assertNull(database.get(3));
+        assertEquals(2, database.puts, "one write per task, not per change");
+    }
+
+    @Test
+    void testFlushesWhenBatchSizeIsReached() throws InterruptedException {
+        RecordingStore database = new RecordingStore();
+        WriteBehindTaskStore store = new WriteBehindTaskStore(new ConcurrentTaskStore(), database,
+            100, 10, NEVER, Duration.ofSeconds(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+
+        for (int id = 1; id <= 10; id++) {
+            store.put(new Task(id, "Task " + id));
+        }
+
+        assertTrue(database.flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(10, database.size());
+        assertEquals(0, registry.get("tasks.writebehind.pending").gauge().value());
+        assertEquals(0, registry.get("tasks.writebehind.lag").gauge().value());
+        store.close();
+    }
+
+    @Test
+    void testWritersFailWhenQueueStaysFull() {
+        RecordingStore database = new RecordingStore();
+        database.failing = true;
+        WriteBehindTaskStore store = new WriteBehindTaskStore(new ConcurrentTaskStore(), database,
+            2, 100, NEVER, Duration.ofMillis(50));
+
+        store.put(new Task(1, "First"));
+        store.put(new Task(2, "Second"));
+        // Rewriting a pending task merges into its entry and needs no extra room
+        store.put(new Task(1, "Renamed"));
+        assertTrue(store.lagNanos() > 0);
+
+        assertThrows(IllegalStateException.class, () -> store.put(new Task(3, "Third")));
+        assertNull(store.get(3));
+
+        database.failing = false;
+        store.close();
+        assertEquals("Renamed", database.get(1).getName());
+        assertEquals(2, database.size());
+    }
+
+    @Test
+    void testLoadsExistingTasksOnStartup() {
+        RecordingStore database = new RecordingStore();
+        database.putAll(List.of(new Task(4, "Four"), new Task(7, "Seven")));
+
+        WriteBehindTaskStore store = new WriteBehindTaskStore(new ConcurrentTaskStore(), database,
+            100, 100, NEVER, Duration.ofSeconds(1));
+
+        assertEquals(2, store.size());
+        assertEquals(7, store.lastId());
+        assertEquals("Four", store.get(4).getName());
+        store.close();
+    }
+
+    /**
+     * Counts single-task writes that arrive through putAll and can be told to fail.
+     */
+    private static class RecordingStore extends ConcurrentTaskStore {
+        final CountDownLatch flushed = new CountDownLatch(1);
+        volatile boolean failing;
+        int puts;
+
+        @Override
+        public void putAll(List<Task> tasks) {
+            if (failing) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            puts += tasks.size();
+            super.putAll(new ArrayList<>(tasks));
+            flushed.countDown();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Throughput and p99 latency of TaskLoadTest.jmx with platform vs virtual request threads.
+#
+# Usage: src/test/jmeter/compare-thread-modes.sh [connections...]   (default: 1000 2500 5000 10000)
+# Needs JAVA_HOME pointing at a Java 21 JDK. Environment overrides: DURATION (s), RAMPUP (s), PORT.
+set -euo pipefail
+
+cd "$(dirname "$0")/../../.."
+if [ $# -gt 0 ]; then CONNECTIONS=("$@"); else CONNECTIONS=(1000 2500 5000 10000); fi
+DURATION=${DURATION:-60}
+RAMPUP=${RAMPUP:-10}
+PORT=${PORT:-8080}
+RESULTS=target/loadtest
+mkdir -p "$RESULTS"
+
+mvn -B -q -Pjava21 -DskipTests package
+# Run from a copy: each JMeter run goes through the verify phase, which repackages target/*.jar
+JAR=$RESULTS/app.jar
+cp "$(ls target/*.jar | head -n 1)" "$JAR"
+
+summarize() {
+    # CSV JTL: column 2 is elapsed ms, column 8 is success; prints req/s, p99 ms and error %
+    local samples errors rank p99
+    samples=$(($(wc -l < "$1") - 1))
+    errors=$(tail -n +2 "$1" | cut -d, -f8 | grep -vc '^true$' || true)
+    rank=$(( samples * 99 / 100 > 0 ? samples * 99 / 100 : 1 ))
+    p99=$(tail -n +2 "$1" | cut -d, -f2 | sort -n | sed -n "${rank}p")
+    awk -v n="$samples" -v d="$DURATION" -v p="$p99" -v e="$errors" \
+        'BEGIN { printf "%10.0f %10d %8.2f", n / d, p, 100 * e / (n > 0 ? n : 1) }'
+}
+
+if curl -s "http://localhost:$PORT" > /dev/null; then
+    echo "Port $PORT is already in use" >&2
+    exit 1
+fi
+
+printf "%-9s %12s %10s %10s %8s\n" mode connections "req/s" "p99(ms)" "err%"
+for virtual in false true; do
+    mode=$([ "$virtual" = true ] && echo virtual || echo platform)
+    java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+        --server.tomcat.max-connections=20000 --server.tomcat.accept-count=2000 \
+        > "$RESULTS/app-$mode.log" 2>&1 &
+    APP=$!
+    trap 'kill $APP 2>/dev/null || true' EXIT
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 "$APP" 2>/dev/null || { echo "App failed to start, see $RESULTS/app-$mode.log"; exit 1; }
+        sleep 1
+    done
+
+    for connections in "${CONNECTIONS[@]}"; do
+        rm -rf target/jmeter/results target/jmeter/reports
+        mvn -B -q -Ploadtest verify -DskipTests \
+            -Dloadtest.port="$PORT" -Dloadtest.threads="$connections" -Dloadtest.rampup="$RAMPUP" \
+            -Dloadtest.loops=-1 -Dloadtest.duration="$DURATION" > "$RESULTS/jmeter-$mode-$connections.log" 2>&1 || true
+        jtl=$(ls -t target/jmeter/results/*.csv | head -n 1)
+        cp "$jtl" "$RESULTS/$mode-$connections.csv"
+        printf "%-9s %12d %s\n" "$mode" "$connections" "$(summarize "$jtl")"
+    done
+
+    kill "$APP"
+    wait "$APP" 2>/dev/null || true
+done